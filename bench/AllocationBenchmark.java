@@ -0,0 +1,157 @@
+import ch.qos.logback.classic.Level;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.sistema.mensajeria.controller.ChatController;
+import com.sistema.mensajeria.controller.LeanChatController;
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.ConnectionNotification;
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.service.LeanMessageFactory;
+import com.sistema.mensajeria.util.CoarseClock;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+
+import java.lang.management.ManagementFactory;
+import java.lang.reflect.Field;
+import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Benchmark de asignaciones por mensaje entregado: modelo clásico frente al modelo ligero
+ *
+ * Reproduce el camino de un mensaje en el modo servlet: deserialización del payload
+ * entrante, lógica del controlador y serialización del mensaje que el broker distribuye
+ * (el broker serializa una vez por mensaje, independientemente del número de suscriptores).
+ * Mide los bytes asignados por el hilo con ThreadMXBean.
+ *
+ * Uso: bench/allocation-benchmark.sh [iteraciones]
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class AllocationBenchmark {
+
+    private static final int SENDERS = 50;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json()
+            .featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    private final byte[][] chatPayloads = new byte[SENDERS][];
+    private final byte[][] typingPayloads = new byte[SENDERS][];
+
+    // Headers de sesión con el nombre ya internado, como tras /app/chat.addUser
+    private final SimpMessageHeaderAccessor[] sessions = new SimpMessageHeaderAccessor[SENDERS];
+
+    private final ChatController chatController = new ChatController();
+    private final LeanChatController leanChatController = new LeanChatController();
+    private final LeanMessageFactory messageFactory = new LeanMessageFactory();
+    private final CoarseClock clock = new CoarseClock(10);
+
+    // Evita que el JIT elimine el trabajo medido
+    private long sink;
+
+    public static void main(String[] args) throws Exception {
+        int iterations = args.length > 0 ? Integer.parseInt(args[0]) : 1_000_000;
+
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        AllocationBenchmark benchmark = new AllocationBenchmark();
+        benchmark.setUp();
+
+        System.out.printf("Iteraciones: %d (calentamiento: %d)%n", iterations, iterations / 5);
+        System.out.println("-------------------------------------------");
+        benchmark.report("CHAT clásico", iterations, benchmark::classicChat);
+        benchmark.report("CHAT ligero", iterations, benchmark::leanChat);
+        benchmark.report("TYPING clásico", iterations, benchmark::classicTyping);
+        benchmark.report("TYPING ligero", iterations, benchmark::leanTyping);
+        benchmark.report("userCount clásico", iterations, benchmark::classicUserCount);
+        benchmark.report("userCount ligero", iterations, benchmark::leanUserCount);
+
+        benchmark.clock.stop();
+        System.out.println("(" + benchmark.sink + ")");
+    }
+
+    private void setUp() throws Exception {
+        for (int i = 0; i < SENDERS; i++) {
+            chatPayloads[i] = ("{\"sender\":\"usuario-" + i + "\",\"content\":\" Hola a todos, ¿qué tal el día? \","
+                    + "\"type\":\"CHAT\"}").getBytes(StandardCharsets.UTF_8);
+            typingPayloads[i] = ("{\"sender\":\"usuario-" + i + "\",\"type\":\"TYPING\"}")
+                    .getBytes(StandardCharsets.UTF_8);
+        }
+        clock.start();
+        inject(messageFactory, "clock", clock);
+        inject(leanChatController, "messageFactory", messageFactory);
+        for (int i = 0; i < SENDERS; i++) {
+            sessions[i] = SimpMessageHeaderAccessor.create();
+            sessions[i].setSessionAttributes(new HashMap<>(
+                    Map.of("username", messageFactory.internSender("usuario-" + i))));
+        }
+    }
+
+    private static void inject(Object target, String fieldName, Object value) throws Exception {
+        Field field = target.getClass().getDeclaredField(fieldName);
+        field.setAccessible(true);
+        field.set(target, value);
+    }
+
+    private long classicChat(int i) throws Exception {
+        ChatMessage message = objectMapper.readValue(chatPayloads[i % SENDERS], ChatMessage.class);
+        return objectMapper.writeValueAsBytes(chatController.sendMessage(message)).length;
+    }
+
+    private long leanChat(int i) throws Exception {
+        LeanChatMessage message = objectMapper.readValue(chatPayloads[i % SENDERS], LeanChatMessage.class);
+        return objectMapper.writeValueAsBytes(leanChatController.sendMessage(message, sessions[i % SENDERS])).length;
+    }
+
+    private long classicTyping(int i) throws Exception {
+        ChatMessage message = objectMapper.readValue(typingPayloads[i % SENDERS], ChatMessage.class);
+        return objectMapper.writeValueAsBytes(chatController.userTyping(message)).length;
+    }
+
+    private long leanTyping(int i) throws Exception {
+        LeanChatMessage message = objectMapper.readValue(typingPayloads[i % SENDERS], LeanChatMessage.class);
+        return objectMapper.writeValueAsBytes(leanChatController.userTyping(message, sessions[i % SENDERS])).length;
+    }
+
+    private long classicUserCount(int i) throws Exception {
+        ConnectionNotification notification = new ConnectionNotification(
+                ConnectionNotification.NotificationType.USER_LIST_UPDATE, null, i % SENDERS);
+        return objectMapper.writeValueAsBytes(notification).length;
+    }
+
+    private long leanUserCount(int i) throws Exception {
+        return objectMapper.writeValueAsBytes(messageFactory.userCount(i % SENDERS)).length;
+    }
+
+    /**
+     * Operación medida; devuelve un valor para que no se elimine
+     */
+    @FunctionalInterface
+    private interface Operation {
+        long run(int i) throws Exception;
+    }
+
+    private void report(String name, int iterations, Operation operation) throws Exception {
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+
+        for (int i = 0; i < iterations / 5; i++) {
+            sink += operation.run(i);
+        }
+
+        long before = threads.getCurrentThreadAllocatedBytes();
+        long start = System.nanoTime();
+        for (int i = 0; i < iterations; i++) {
+            sink += operation.run(i);
+        }
+        long elapsed = System.nanoTime() - start;
+        long allocated = threads.getCurrentThreadAllocatedBytes() - before;
+
+        System.out.printf("%-20s %8.1f bytes/mensaje %8.1f ns/mensaje%n",
+                name, (double) allocated / iterations, (double) elapsed / iterations);
+    }
+}
@@ -0,0 +1,222 @@
+import ch.qos.logback.classic.Level;
+import com.sistema.mensajeria.broker.PartitionedBrokerMessageHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.broker.SimpleBrokerMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.Function;
+
+/**
+ * Benchmark de escalado del broker particionado frente al broker simple de Spring
+ *
+ * Registra muchos destinos con varios suscriptores cada uno y publica mensajes
+ * desde varios hilos productores a destinos aleatorios. El canal de salida es
+ * síncrono y codifica cada entrega como trama STOMP, que es el trabajo por
+ * suscriptor que hace el servidor antes de escribir en el socket. Mide las
+ * entregas por segundo con 1, 2, 4... particiones hasta el número de núcleos.
+ *
+ * Uso: bench/broker-scaling-benchmark.sh [destinos] [suscriptores-por-destino] [mensajes]
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class BrokerScalingBenchmark {
+
+    private static final byte[] PAYLOAD = ("{\"type\":\"CHAT\",\"content\":\"Hola a todos\","
+            + "\"sender\":\"usuario-1\",\"timestamp\":1760000000000}").getBytes(StandardCharsets.UTF_8);
+
+    private final int destinations;
+    private final int subscribersPerDestination;
+    private final int producers = Runtime.getRuntime().availableProcessors();
+
+    private final Message<?>[] publications;
+
+    public static void main(String[] args) throws Exception {
+        int destinations = args.length > 0 ? Integer.parseInt(args[0]) : 10_000;
+        int subscribers = args.length > 1 ? Integer.parseInt(args[1]) : 4;
+        int messages = args.length > 2 ? Integer.parseInt(args[2]) : 500_000;
+
+        ((ch.qos.logback.classic.Logger) LoggerFactory.getLogger(Logger.ROOT_LOGGER_NAME)).setLevel(Level.WARN);
+
+        BrokerScalingBenchmark benchmark = new BrokerScalingBenchmark(destinations, subscribers);
+        int cores = Runtime.getRuntime().availableProcessors();
+
+        // Mismos hilos de salida en todas las ejecuciones, para que el escalado se deba solo a las particiones
+        int outboundThreads = cores;
+
+        System.out.printf("Núcleos: %d, destinos: %d, suscriptores por destino: %d, mensajes: %d, productores: %d%n",
+                cores, destinations, subscribers, messages, benchmark.producers);
+        System.out.printf("Hilos de salida del broker particionado: %d; caché de destinos del broker simple: %d%n",
+                outboundThreads, destinations);
+        System.out.println("-------------------------------------------------------------");
+
+        // La caché por defecto del broker simple (1024 entradas) no cubre tantos destinos y cada fallo
+        // recorre todas las suscripciones; se amplía para comparar con el broker en su mejor caso
+        double simple = benchmark.run("broker simple", messages, channels -> {
+            SimpleBrokerMessageHandler handler = new SimpleBrokerMessageHandler(
+                    channels.inbound, channels.outbound, channels.broker, List.of("/topic"));
+            handler.setCacheLimit(destinations);
+            return handler;
+        });
+
+        double base = 0;
+        for (int partitions = 1; partitions <= cores; partitions <<= 1) {
+            int count = partitions;
+            double throughput = benchmark.run(count + " particiones", messages, channels -> {
+                PartitionedBrokerMessageHandler handler = new PartitionedBrokerMessageHandler(
+                        channels.inbound, channels.outbound, channels.broker, List.of("/topic"), count);
+                handler.setOutboundThreads(outboundThreads);
+                // Espera larga: el benchmark no debe descartar mensajes
+                handler.setPublishTimeoutMillis(60_000);
+                return handler;
+            });
+            if (count == 1) {
+                base = throughput;
+            }
+            System.out.printf("%38s x%.2f frente a 1 partición, x%.2f frente al broker simple%n",
+                    "", throughput / base, throughput / simple);
+        }
+        if (cores == 1) {
+            System.out.println("Solo hay un núcleo disponible: no se puede medir el escalado");
+        }
+    }
+
+    private BrokerScalingBenchmark(int destinations, int subscribersPerDestination) {
+        this.destinations = destinations;
+        this.subscribersPerDestination = subscribersPerDestination;
+        this.publications = new Message<?>[destinations];
+        for (int i = 0; i < destinations; i++) {
+            SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+            accessor.setDestination(destination(i));
+            publications[i] = MessageBuilder.createMessage(PAYLOAD, accessor.getMessageHeaders());
+        }
+    }
+
+    private static String destination(int index) {
+        return "/topic/sala-" + index;
+    }
+
+    /**
+     * Canales del broker; el de salida es síncrono y codifica cada entrega
+     */
+    private static final class Channels {
+        final ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+        final ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+        final ExecutorSubscribableChannel broker = new ExecutorSubscribableChannel();
+        final LongAdder delivered = new LongAdder();
+        final LongAdder encodedBytes = new LongAdder();
+
+        Channels() {
+            StompEncoder encoder = new StompEncoder();
+            outbound.subscribe(message -> {
+                SimpMessageHeaderAccessor simp = SimpMessageHeaderAccessor.wrap(message);
+                if (simp.getMessageType() != SimpMessageType.MESSAGE) {
+                    return;
+                }
+                StompHeaderAccessor stomp = StompHeaderAccessor.create(StompCommand.MESSAGE);
+                stomp.setDestination(simp.getDestination());
+                stomp.setSubscriptionId(simp.getSubscriptionId());
+                stomp.setMessageId(simp.getSessionId() + "-" + simp.getSubscriptionId());
+                stomp.setContentLength(((byte[]) message.getPayload()).length);
+                encodedBytes.add(encoder.encode(stomp.getMessageHeaders(), (byte[]) message.getPayload()).length);
+                delivered.increment();
+            });
+        }
+    }
+
+    /**
+     * Ejecuta un calentamiento (1/5 de los mensajes) y una medición con un broker nuevo
+     *
+     * @return Entregas por segundo de la medición
+     */
+    private double run(String name, int messages, Function<Channels, AbstractBrokerMessageHandler> factory)
+            throws Exception {
+        Channels channels = new Channels();
+        AbstractBrokerMessageHandler handler = factory.apply(channels);
+        handler.start();
+        try {
+            subscribeAll(channels);
+            publish(channels, messages / 5);
+            double throughput = publish(channels, messages);
+            System.out.printf("%-16s %,14.0f entregas/s%n", name, throughput);
+            return throughput;
+        } finally {
+            handler.stop();
+        }
+    }
+
+    private void subscribeAll(Channels channels) {
+        int sessions = Math.max(1, destinations * subscribersPerDestination / 8);
+        for (int s = 0; s < sessions; s++) {
+            SimpMessageHeaderAccessor connect = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT);
+            connect.setSessionId("s-" + s);
+            channels.inbound.send(MessageBuilder.createMessage(new byte[0], connect.getMessageHeaders()));
+        }
+        int subscription = 0;
+        for (int d = 0; d < destinations; d++) {
+            for (int k = 0; k < subscribersPerDestination; k++) {
+                SimpMessageHeaderAccessor subscribe = SimpMessageHeaderAccessor.create(SimpMessageType.SUBSCRIBE);
+                subscribe.setSessionId("s-" + (subscription % sessions));
+                subscribe.setSubscriptionId("sub-" + subscription++);
+                subscribe.setDestination(destination(d));
+                channels.inbound.send(MessageBuilder.createMessage(new byte[0], subscribe.getMessageHeaders()));
+            }
+        }
+    }
+
+    /**
+     * Publica los mensajes desde todos los productores y espera a que se entreguen
+     */
+    private double publish(Channels channels, int count) throws InterruptedException {
+        int perProducer = count / producers;
+        long deliveries = (long) perProducer * producers * subscribersPerDestination;
+        long expected = channels.delivered.sum() + deliveries;
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> threads = new ArrayList<>();
+        for (int p = 0; p < producers; p++) {
+            Thread thread = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException ex) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < perProducer; i++) {
+                    channels.broker.send(publications[random.nextInt(destinations)]);
+                }
+            }, "productor-" + p);
+            thread.start();
+            threads.add(thread);
+        }
+
+        long begin = System.nanoTime();
+        start.countDown();
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        // Con el broker particionado las entregas terminan en los hilos de salida de las particiones
+        while (channels.delivered.sum() < expected) {
+            LockSupport.parkNanos(100_000);
+        }
+        long elapsed = System.nanoTime() - begin;
+        return deliveries / (elapsed / 1e9);
+    }
+}
@@ -0,0 +1,273 @@
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.WebSocket;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Generador de carga STOMP sobre WebSocket para el Sistema de Mensajería
+ * Solo depende de la JDK: se ejecuta con "java bench/ChatLoadBenchmark.java"
+ *
+ * Abre sesiones inactivas (suscritas a /topic/userCount) y sesiones activas
+ * (suscritas a /topic/public) que envían a /app/chat.sendMessage. La latencia
+ * se mide en cada emisor desde el envío hasta recibir su propio mensaje del broker.
+ *
+ * Opciones:
+ *   --url        URLs WebSocket separadas por comas (por defecto ws://localhost:8080/ws-chat/websocket)
+ *                Varias URLs (127.0.0.1, 127.0.0.2, ...) permiten superar el límite de puertos efímeros
+ *   --idle       Sesiones inactivas (por defecto 1000)
+ *   --active     Sesiones activas (por defecto 100)
+ *   --rate       Mensajes por segundo de cada sesión activa (por defecto 0.1)
+ *   --duration   Segundos de la fase activa (por defecto 60)
+ *   --settle     Segundos de espera tras abrir las conexiones (por defecto 15)
+ *   --parallel   Handshakes concurrentes durante la conexión (por defecto 200)
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class ChatLoadBenchmark {
+
+    private static final char NULL = '\0';
+
+    private final List<URI> uris = new ArrayList<>();
+    private int idle = 1000;
+    private int active = 100;
+    private double rate = 0.1;
+    private int duration = 60;
+    private int settle = 15;
+    private int parallel = 200;
+
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(30))
+            .build();
+
+    private final List<Client> activeClients = new ArrayList<>();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong delivered = new AtomicLong();
+    private final AtomicInteger failedConnections = new AtomicInteger();
+
+    public static void main(String[] args) throws Exception {
+        ChatLoadBenchmark benchmark = new ChatLoadBenchmark();
+        benchmark.parse(args);
+        benchmark.run();
+    }
+
+    private void parse(String[] args) {
+        String urls = "ws://localhost:8080/ws-chat/websocket";
+        for (int i = 0; i + 1 < args.length; i += 2) {
+            String value = args[i + 1];
+            switch (args[i]) {
+                case "--url" -> urls = value;
+                case "--idle" -> idle = Integer.parseInt(value);
+                case "--active" -> active = Integer.parseInt(value);
+                case "--rate" -> rate = Double.parseDouble(value);
+                case "--duration" -> duration = Integer.parseInt(value);
+                case "--settle" -> settle = Integer.parseInt(value);
+                case "--parallel" -> parallel = Integer.parseInt(value);
+                default -> throw new IllegalArgumentException("Opción desconocida: " + args[i]);
+            }
+        }
+        for (String url : urls.split(",")) {
+            uris.add(URI.create(url.trim()));
+        }
+    }
+
+    private void run() throws Exception {
+        System.out.printf("Conectando %d sesiones inactivas y %d activas...%n", idle, active);
+        long start = System.nanoTime();
+
+        Semaphore handshakes = new Semaphore(parallel);
+        CountDownLatch subscribed = new CountDownLatch(idle + active);
+
+        for (int i = 0; i < idle + active; i++) {
+            boolean isActive = i < active;
+            Client client = new Client("bench-" + i, isActive, subscribed);
+            if (isActive) {
+                activeClients.add(client);
+            }
+            handshakes.acquire();
+            client.connect(uris.get(i % uris.size())).whenComplete((ws, error) -> {
+                handshakes.release();
+                if (error != null) {
+                    failedConnections.incrementAndGet();
+                    client.countDown();
+                }
+            });
+        }
+        subscribed.await();
+
+        int connected = idle + active - failedConnections.get();
+        System.out.printf("READY conexiones=%d fallidas=%d tiempo=%d ms%n",
+                connected, failedConnections.get(), TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        System.out.flush();
+
+        TimeUnit.SECONDS.sleep(settle);
+
+        // Fase activa: cada sesión envía con un desfase aleatorio para repartir la carga
+        System.out.printf("Fase activa: %d sesiones x %.2f msg/s durante %d s%n", active, rate, duration);
+        long periodMicros = (long) (1_000_000 / rate);
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(
+                Math.max(2, Runtime.getRuntime().availableProcessors()));
+        for (Client client : activeClients) {
+            if (client.isOpen()) {
+                long initialDelay = ThreadLocalRandom.current().nextLong(periodMicros);
+                scheduler.scheduleAtFixedRate(client::sendChat, initialDelay, periodMicros, TimeUnit.MICROSECONDS);
+            }
+        }
+        TimeUnit.SECONDS.sleep(duration);
+        scheduler.shutdownNow();
+        TimeUnit.SECONDS.sleep(2);
+
+        report();
+        System.exit(0);
+    }
+
+    private void report() {
+        long[] all = activeClients.stream().map(Client::samples).flatMapToLong(Arrays::stream).toArray();
+        Arrays.sort(all);
+        System.out.println("-------------------------------------------");
+        System.out.printf("Mensajes enviados: %d, entregas recibidas: %d, muestras de latencia: %d%n",
+                sent.get(), delivered.get(), all.length);
+        if (all.length > 0) {
+            System.out.printf("Latencia (ms) p50=%.2f p99=%.2f p99.9=%.2f max=%.2f%n",
+                    percentile(all, 0.50), percentile(all, 0.99), percentile(all, 0.999),
+                    all[all.length - 1] / 1_000_000.0);
+        }
+    }
+
+    private static double percentile(long[] sorted, double p) {
+        int index = (int) Math.min(sorted.length - 1, Math.ceil(p * sorted.length) - 1);
+        return sorted[Math.max(0, index)] / 1_000_000.0;
+    }
+
+    /**
+     * Sesión STOMP de prueba
+     */
+    private final class Client implements WebSocket.Listener {
+
+        private final String name;
+        private final boolean active;
+        private final CountDownLatch subscribed;
+        private final StringBuilder partial = new StringBuilder();
+
+        // Muestras de latencia propias, en nanosegundos
+        private long[] samples = new long[64];
+        private int sampleCount;
+
+        private CompletableFuture<WebSocket> lastSend;
+        private volatile boolean open;
+        private boolean counted;
+
+        Client(String name, boolean active, CountDownLatch subscribed) {
+            this.name = name;
+            this.active = active;
+            this.subscribed = subscribed;
+        }
+
+        CompletableFuture<WebSocket> connect(URI uri) {
+            return httpClient.newWebSocketBuilder().buildAsync(uri, this);
+        }
+
+        boolean isOpen() {
+            return open;
+        }
+
+        @Override
+        public void onOpen(WebSocket webSocket) {
+            synchronized (this) {
+                lastSend = CompletableFuture.completedFuture(webSocket);
+            }
+            open = true;
+            send("CONNECT\naccept-version:1.1,1.0\nheart-beat:0,0\n\n" + NULL);
+            webSocket.request(1);
+        }
+
+        @Override
+        public CompletionStage<?> onText(WebSocket webSocket, CharSequence data, boolean last) {
+            partial.append(data);
+            if (last) {
+                String text = partial.toString();
+                partial.setLength(0);
+                handle(text);
+            }
+            webSocket.request(1);
+            return null;
+        }
+
+        private void handle(String text) {
+            if (text.startsWith("CONNECTED")) {
+                String destination = active ? "/topic/public" : "/topic/userCount";
+                send("SUBSCRIBE\nid:sub-0\ndestination:" + destination + "\n\n" + NULL);
+                countDown();
+            } else if (text.startsWith("MESSAGE") && active) {
+                long now = System.nanoTime();
+                delivered.incrementAndGet();
+                if (text.contains("\"sender\":\"" + name + "\"")) {
+                    int start = text.indexOf("\"content\":\"") + 11;
+                    int end = text.indexOf('"', start);
+                    record(now - Long.parseLong(text.substring(start, end)));
+                }
+            }
+        }
+
+        /**
+         * Libera el latch una sola vez, tanto si la sesión se suscribe como si se cierra antes
+         */
+        private synchronized void countDown() {
+            if (!counted) {
+                counted = true;
+                subscribed.countDown();
+            }
+        }
+
+        private synchronized void record(long latency) {
+            if (sampleCount == samples.length) {
+                samples = Arrays.copyOf(samples, samples.length * 2);
+            }
+            samples[sampleCount++] = latency;
+        }
+
+        synchronized long[] samples() {
+            return Arrays.copyOf(samples, sampleCount);
+        }
+
+        void sendChat() {
+            sent.incrementAndGet();
+            send("SEND\ndestination:/app/chat.sendMessage\ncontent-type:application/json\n\n"
+                    + "{\"sender\":\"" + name + "\",\"content\":\"" + System.nanoTime() + "\",\"type\":\"CHAT\"}"
+                    + NULL);
+        }
+
+        /**
+         * El cliente WebSocket de la JDK no admite envíos concurrentes; se encadenan
+         */
+        private synchronized void send(String frame) {
+            lastSend = lastSend.thenCompose(ws -> ws.sendText(frame, true));
+        }
+
+        @Override
+        public CompletionStage<?> onClose(WebSocket webSocket, int statusCode, String reason) {
+            open = false;
+            countDown();
+            return null;
+        }
+
+        @Override
+        public void onError(WebSocket webSocket, Throwable error) {
+            open = false;
+            countDown();
+        }
+    }
+}
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+#
+# Benchmark de asignaciones por mensaje: modelo clásico frente al modelo ligero
+#
+# Uso:
+#   bench/allocation-benchmark.sh [iteraciones]
+#
+# @author Sistema de Mensajería
+# @version 1.0.0
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+cd "$ROOT"
+
+mvn -B -q compile dependency:build-classpath \
+    -Dmdep.outputFile=target/bench-classpath.txt -Dmdep.includeScope=runtime
+
+java -Dfile.encoding=UTF-8 -cp "target/classes:$(cat target/bench-classpath.txt)" bench/AllocationBenchmark.java "$@"
@@ -0,0 +1,19 @@
+#!/usr/bin/env bash
+#
+# Benchmark de escalado del broker particionado frente al broker simple de Spring
+#
+# Uso:
+#   bench/broker-scaling-benchmark.sh [destinos] [suscriptores-por-destino] [mensajes]
+#
+# @author Sistema de Mensajería
+# @version 1.0.0
+
+set -euo pipefail
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+cd "$ROOT"
+
+mvn -B -q compile dependency:build-classpath \
+    -Dmdep.outputFile=target/bench-classpath.txt -Dmdep.includeScope=runtime
+
+java -Dfile.encoding=UTF-8 -cp "target/classes:$(cat target/bench-classpath.txt)" bench/BrokerScalingBenchmark.java "$@"
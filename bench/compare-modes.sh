@@ -0,0 +1,128 @@
+#!/usr/bin/env bash
+#
+# Comparación de los modos servlet (Tomcat) y reactivo (Reactor Netty)
+#
+# Para cada modo arranca el servidor, abre las sesiones con ChatLoadBenchmark y mide:
+#   - Conexiones por GB de heap: sesiones / (heap usado con sesiones - heap usado en reposo)
+#     tras forzar un GC completo en ambos puntos
+#   - Latencia p99 de entrega en la fase activa (informada por el generador de carga)
+#
+# Uso:
+#   mvn package
+#   bench/compare-modes.sh [servlet|reactive|all]
+#
+# Variables de entorno:
+#   IDLE, ACTIVE, RATE, DURATION   Parámetros de la carga (por defecto 50000, 5000, 0.1, 60)
+#   URLS                           URLs WebSocket separadas por comas; con más de ~28000 sesiones
+#                                  conviene repartirlas entre 127.0.0.1, 127.0.0.2, ...
+#   SERVER_HEAP, CLIENT_HEAP       -Xmx del servidor y del generador (por defecto 4g y 4g)
+#   PORT                           Puerto del servidor (por defecto 8080)
+#
+# @author Sistema de Mensajería
+# @version 1.0.0
+
+set -euo pipefail
+
+MODES="${1:-all}"
+IDLE="${IDLE:-50000}"
+ACTIVE="${ACTIVE:-5000}"
+RATE="${RATE:-0.1}"
+DURATION="${DURATION:-60}"
+PORT="${PORT:-8080}"
+URLS="${URLS:-ws://127.0.0.1:$PORT/ws-chat/websocket,ws://127.0.0.2:$PORT/ws-chat/websocket}"
+SERVER_HEAP="${SERVER_HEAP:-4g}"
+CLIENT_HEAP="${CLIENT_HEAP:-4g}"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="$ROOT/target"
+JAR="$TARGET/sistema-mensajeria-1.0.0.jar"
+
+if [ ! -f "$JAR" ]; then
+    echo "No se encontró $JAR. Ejecutar: mvn package" >&2
+    exit 1
+fi
+
+# Cada conexión consume un descriptor en el servidor y otro en el cliente
+ulimit -n 1048576 2>/dev/null || ulimit -n "$(ulimit -Hn)"
+
+if [ "$MODES" = "all" ]; then
+    MODES="servlet reactive"
+fi
+
+# Heap usado (KB) tras un GC completo
+used_heap_kb() {
+    jcmd "$1" GC.run > /dev/null
+    sleep 1
+    # Suma de supervivientes, eden y generación vieja; válido para cualquier recolector
+    jstat -gc "$1" | awk 'NR == 1 { for (i = 1; i <= NF; i++) col[$i] = i }
+        NR == 2 { printf "%d\n", $col["S0U"] + $col["S1U"] + $col["EU"] + $col["OU"] }'
+}
+
+wait_for_server() {
+    until curl -s -o /dev/null "http://localhost:$PORT/ws-chat/info"; do
+        if ! kill -0 "$1" 2>/dev/null; then
+            echo "El servidor terminó durante el arranque" >&2
+            exit 1
+        fi
+        sleep 0.2
+    done
+}
+
+RESULTS=()
+
+for mode in $MODES; do
+    case "$mode" in
+        servlet)
+            args=(--server.tomcat.max-connections=-1 --server.tomcat.accept-count=10000)
+            ;;
+        reactive)
+            args=(--spring.profiles.active=reactive)
+            ;;
+        *)
+            echo "Modo desconocido: $mode (servlet|reactive|all)" >&2
+            exit 1
+            ;;
+    esac
+
+    echo "==========================================="
+    echo "Modo $mode"
+    java -Xms"$SERVER_HEAP" -Xmx"$SERVER_HEAP" -jar "$JAR" --server.port="$PORT" \
+        --logging.level.com.sistema.mensajeria=WARN "${args[@]}" > "$TARGET/compare-$mode-server.log" 2>&1 &
+    server=$!
+    wait_for_server "$server"
+
+    baseline=$(used_heap_kb "$server")
+
+    java -Dfile.encoding=UTF-8 -Xmx"$CLIENT_HEAP" "$ROOT/bench/ChatLoadBenchmark.java" --url "$URLS" \
+        --idle "$IDLE" --active "$ACTIVE" --rate "$RATE" --duration "$DURATION" \
+        > "$TARGET/compare-$mode-client.log" 2>&1 &
+    client=$!
+
+    until grep -q '^READY' "$TARGET/compare-$mode-client.log"; do
+        if ! kill -0 "$client" 2>/dev/null; then
+            echo "El generador de carga terminó antes de conectar, revisar $TARGET/compare-$mode-client.log" >&2
+            kill "$server"
+            exit 1
+        fi
+        sleep 1
+    done
+    grep '^READY' "$TARGET/compare-$mode-client.log"
+
+    loaded=$(used_heap_kb "$server")
+    connections=$(grep -o 'conexiones=[0-9]*' "$TARGET/compare-$mode-client.log" | tr -dc '0-9')
+    per_gb=$(( connections * 1048576 / (loaded - baseline > 0 ? loaded - baseline : 1) ))
+
+    wait "$client" || true
+    p99=$(grep -o 'p99=[0-9.]*' "$TARGET/compare-$mode-client.log" | head -1 | cut -d= -f2)
+    grep -A2 -- '-----' "$TARGET/compare-$mode-client.log" || true
+
+    kill "$server"
+    wait "$server" 2>/dev/null || true
+
+    echo "Heap en reposo: ${baseline} KB, con $connections sesiones: ${loaded} KB"
+    RESULTS+=("$(printf '%-10s %12s %18s %12s' "$mode" "$connections" "$per_gb" "${p99:-n/a}")")
+done
+
+echo "==========================================="
+printf '%-10s %12s %18s %12s\n' "Modo" "Sesiones" "Conexiones/GB" "p99 (ms)"
+printf '%s\n' "${RESULTS[@]}"
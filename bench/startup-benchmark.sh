@@ -0,0 +1,160 @@
+#!/usr/bin/env bash
+#
+# Benchmark de arranque del Sistema de Mensajería en Tiempo Real
+#
+# Mide, para cada modo de ejecución:
+#   - Tiempo hasta la primera conexión WebSocket aceptada en /ws-chat (HTTP 101)
+#   - Memoria residente (RSS) del proceso tras un periodo en reposo
+#
+# Uso:
+#   mvn -Pcds package                 # JAR ejecutable (-exec) y JAR plano con AOT
+#   mvn -Pcds,crac package            # idem, con soporte CRaC
+#   mvn -Pnative package              # imagen nativa (requiere GraalVM)
+#
+#   bench/startup-benchmark.sh [jvm|cds|crac|native] [repeticiones]
+#
+# Variables de entorno:
+#   PORT          Puerto del servidor (por defecto 8080)
+#   IDLE_SECONDS  Segundos de reposo antes de medir RSS (por defecto 10)
+#   JAVA          Binario java a utilizar (por defecto "java"; para crac, una JDK con CRaC)
+#   PROFILES      Perfiles Spring a activar (p. ej. "reactive"); para cds y crac el JAR
+#                 debe generarse con los mismos perfiles: mvn -Pcds package -Daot.profiles=reactive
+#
+# @author Sistema de Mensajería
+# @version 1.0.0
+
+set -euo pipefail
+
+MODE="${1:-jvm}"
+RUNS="${2:-5}"
+PORT="${PORT:-8080}"
+IDLE_SECONDS="${IDLE_SECONDS:-10}"
+JAVA="${JAVA:-java}"
+PROFILES="${PROFILES:-}"
+APP_ARGS="--server.port=$PORT${PROFILES:+ --spring.profiles.active=$PROFILES}"
+
+ROOT="$(cd "$(dirname "$0")/.." && pwd)"
+TARGET="$ROOT/target"
+FAT_JAR="$TARGET/sistema-mensajeria-1.0.0-exec.jar"
+THIN_JAR="$TARGET/sistema-mensajeria-1.0.0.jar"
+CDS_ARCHIVE="$TARGET/app-cds${PROFILES:+-$PROFILES}.jsa"
+CRAC_DIR="$TARGET/crac${PROFILES:+-$PROFILES}"
+NATIVE_BIN="$TARGET/sistema-mensajeria"
+
+require() {
+    if [ ! -e "$1" ]; then
+        echo "No se encontró $1. $2" >&2
+        exit 1
+    fi
+}
+
+# Comando de arranque según el modo
+launch_command() {
+    case "$MODE" in
+        jvm)
+            require "$FAT_JAR" "Ejecutar: mvn -Pcds package"
+            echo "$JAVA -jar $FAT_JAR $APP_ARGS"
+            ;;
+        cds)
+            require "$THIN_JAR" "Ejecutar: mvn -Pcds package"
+            echo "$JAVA -XX:SharedArchiveFile=$CDS_ARCHIVE -Dspring.aot.enabled=true -jar $THIN_JAR $APP_ARGS"
+            ;;
+        crac)
+            echo "$JAVA -XX:CRaCRestoreFrom=$CRAC_DIR"
+            ;;
+        native)
+            require "$NATIVE_BIN" "Ejecutar: mvn -Pnative package"
+            echo "$NATIVE_BIN $APP_ARGS"
+            ;;
+        *)
+            echo "Modo desconocido: $MODE (jvm|cds|crac|native)" >&2
+            exit 1
+            ;;
+    esac
+}
+
+# Ejecución de entrenamiento: genera el archivo AppCDS o el checkpoint CRaC
+prepare() {
+    case "$MODE" in
+        cds)
+            if [ ! -f "$CDS_ARCHIVE" ]; then
+                echo "Generando archivo AppCDS en $CDS_ARCHIVE ..."
+                "$JAVA" -XX:ArchiveClassesAtExit="$CDS_ARCHIVE" \
+                    -Dspring.aot.enabled=true -Dspring.context.exit=onRefresh \
+                    -jar "$THIN_JAR" $APP_ARGS > "$TARGET/cds-training.log" 2>&1 \
+                    || { rm -f "$CDS_ARCHIVE"; echo "El entrenamiento falló, revisar $TARGET/cds-training.log" >&2; exit 1; }
+            fi
+            ;;
+        crac)
+            require "$THIN_JAR" "Ejecutar: mvn -Pcds,crac package"
+            if [ ! -d "$CRAC_DIR" ]; then
+                echo "Generando checkpoint CRaC en $CRAC_DIR ..."
+                "$JAVA" -XX:CRaCCheckpointTo="$CRAC_DIR" -Dspring.context.checkpoint=onRefresh \
+                    -jar "$THIN_JAR" $APP_ARGS > "$TARGET/crac-checkpoint.log" 2>&1 || true
+                require "$CRAC_DIR" "El checkpoint falló, revisar $TARGET/crac-checkpoint.log"
+            fi
+            ;;
+    esac
+}
+
+now_ms() {
+    date +%s%3N
+}
+
+# Intenta el handshake WebSocket de SockJS; devuelve 0 cuando el servidor responde 101
+handshake() {
+    local code
+    code=$(curl -s -o /dev/null -w '%{http_code}' --http1.1 --max-time 0.2 \
+        -H 'Connection: Upgrade' -H 'Upgrade: websocket' \
+        -H 'Sec-WebSocket-Version: 13' -H 'Sec-WebSocket-Key: dGhlIHNhbXBsZSBub25jZQ==' \
+        "http://localhost:$PORT/ws-chat/websocket" 2>/dev/null || true)
+    [ "$code" = "101" ]
+}
+
+rss_kb() {
+    awk '/^VmRSS:/ { print $2 }' "/proc/$1/status"
+}
+
+median() {
+    sort -n | awk '{ v[NR] = $1 } END { if (NR % 2) print v[(NR + 1) / 2]; else print int((v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+CMD="$(launch_command)"
+prepare
+
+echo "Modo: $MODE | Repeticiones: $RUNS | Reposo: ${IDLE_SECONDS}s"
+echo "Comando: $CMD"
+
+STARTUP_FILE="$(mktemp)"
+RSS_FILE="$(mktemp)"
+trap 'rm -f "$STARTUP_FILE" "$RSS_FILE"' EXIT
+
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    $CMD > "$TARGET/startup-benchmark-$MODE.log" 2>&1 &
+    pid=$!
+
+    until handshake; do
+        if ! kill -0 "$pid" 2>/dev/null; then
+            echo "El proceso terminó antes de aceptar conexiones, revisar $TARGET/startup-benchmark-$MODE.log" >&2
+            exit 1
+        fi
+        # Pausa entre intentos para que el sondeo no compita por CPU con el arranque medido
+        sleep 0.015
+    done
+    elapsed=$(( $(now_ms) - start ))
+
+    sleep "$IDLE_SECONDS"
+    rss=$(rss_kb "$pid")
+
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+
+    echo "Ejecución $run: primera conexión /ws-chat en ${elapsed} ms, RSS en reposo ${rss} KB"
+    echo "$elapsed" >> "$STARTUP_FILE"
+    echo "$rss" >> "$RSS_FILE"
+done
+
+echo "-------------------------------------------"
+echo "Mediana primera conexión: $(median < "$STARTUP_FILE") ms"
+echo "Mediana RSS en reposo:    $(median < "$RSS_FILE") KB"
@@ -0,0 +1,161 @@
+package com.sistema.mensajeria.broker;
+
+import java.util.Arrays;
+
+/**
+ * Registro de suscripciones de una partición del broker
+ * Indexa los suscriptores por destino y, por sesión, los pares
+ * (suscripción, destino) para resolver UNSUBSCRIBE y DISCONNECT sin recorrer
+ * todos los destinos.
+ *
+ * Solo admite destinos exactos (sin patrones); no es thread-safe y cada
+ * partición lo accede únicamente desde su propio hilo.
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+final class PartitionSubscriptionRegistry {
+
+    private final StringKeyMap<SubscriberList> subscribersByDestination;
+
+    private final StringKeyMap<SessionSubscriptions> subscriptionsBySession;
+
+    PartitionSubscriptionRegistry(int expectedDestinations) {
+        this.subscribersByDestination = new StringKeyMap<>(expectedDestinations);
+        this.subscriptionsBySession = new StringKeyMap<>();
+    }
+
+    /**
+     * Suscriptores de un destino, o null si no tiene ninguno
+     */
+    SubscriberList findSubscribers(String destination) {
+        return subscribersByDestination.get(destination);
+    }
+
+    /**
+     * Registra una suscripción
+     * Si la sesión ya tenía una suscripción con ese id en esta partición se sustituye,
+     * como en el registro de Spring, para no entregar los mensajes dos veces
+     */
+    void addSubscription(String sessionId, String subscriptionId, String destination) {
+        SessionSubscriptions existing = subscriptionsBySession.get(sessionId);
+        if (existing != null) {
+            String previous = existing.destination(subscriptionId);
+            if (destination.equals(previous)) {
+                return;
+            }
+            if (previous != null) {
+                removeSubscription(sessionId, subscriptionId);
+            }
+        }
+
+        SubscriberList subscribers = subscribersByDestination.get(destination);
+        if (subscribers == null) {
+            subscribers = new SubscriberList();
+            subscribersByDestination.put(destination, subscribers);
+        }
+        subscribers.add(sessionId, subscriptionId);
+
+        SessionSubscriptions session = subscriptionsBySession.get(sessionId);
+        if (session == null) {
+            session = new SessionSubscriptions();
+            subscriptionsBySession.put(sessionId, session);
+        }
+        session.add(subscriptionId, destination);
+    }
+
+    /**
+     * Elimina una suscripción si pertenece a esta partición
+     *
+     * @return true si la suscripción estaba registrada aquí
+     */
+    boolean removeSubscription(String sessionId, String subscriptionId) {
+        SessionSubscriptions session = subscriptionsBySession.get(sessionId);
+        if (session == null) {
+            return false;
+        }
+        String destination = session.remove(subscriptionId);
+        if (destination == null) {
+            return false;
+        }
+        if (session.isEmpty()) {
+            subscriptionsBySession.remove(sessionId);
+        }
+        removeSubscriber(destination, sessionId, subscriptionId);
+        return true;
+    }
+
+    /**
+     * Elimina todas las suscripciones de la sesión en esta partición
+     */
+    void removeSession(String sessionId) {
+        SessionSubscriptions session = subscriptionsBySession.remove(sessionId);
+        if (session == null) {
+            return;
+        }
+        for (int i = 0; i < session.size; i++) {
+            removeSubscriber(session.destinations[i], sessionId, session.subscriptionIds[i]);
+        }
+    }
+
+    private void removeSubscriber(String destination, String sessionId, String subscriptionId) {
+        SubscriberList subscribers = subscribersByDestination.get(destination);
+        if (subscribers != null && subscribers.remove(sessionId, subscriptionId) && subscribers.isEmpty()) {
+            subscribersByDestination.remove(destination);
+        }
+    }
+
+    /**
+     * Suscripciones de una sesión en la partición; suele haber muy pocas
+     */
+    private static final class SessionSubscriptions {
+
+        private String[] subscriptionIds = new String[2];
+        private String[] destinations = new String[2];
+        private int size;
+
+        boolean isEmpty() {
+            return size == 0;
+        }
+
+        void add(String subscriptionId, String destination) {
+            if (size == subscriptionIds.length) {
+                subscriptionIds = Arrays.copyOf(subscriptionIds, size << 1);
+                destinations = Arrays.copyOf(destinations, size << 1);
+            }
+            subscriptionIds[size] = subscriptionId;
+            destinations[size] = destination;
+            size++;
+        }
+
+        /**
+         * @return El destino de la suscripción, o null si no existe
+         */
+        String destination(String subscriptionId) {
+            for (int i = 0; i < size; i++) {
+                if (subscriptionIds[i].equals(subscriptionId)) {
+                    return destinations[i];
+                }
+            }
+            return null;
+        }
+
+        /**
+         * @return El destino de la suscripción eliminada, o null si no existía
+         */
+        String remove(String subscriptionId) {
+            for (int i = 0; i < size; i++) {
+                if (subscriptionIds[i].equals(subscriptionId)) {
+                    String destination = destinations[i];
+                    int last = --size;
+                    subscriptionIds[i] = subscriptionIds[last];
+                    destinations[i] = destinations[last];
+                    subscriptionIds[last] = null;
+                    destinations[last] = null;
+                    return destination;
+                }
+            }
+            return null;
+        }
+    }
+}
@@ -0,0 +1,477 @@
+package com.sistema.mensajeria.broker;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHeaders;
+import org.springframework.messaging.SubscribableChannel;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.util.Collection;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Broker STOMP en memoria particionado por destino
+ * Sustituye al broker simple de Spring repartiendo los destinos entre N
+ * particiones según su hash. Cada partición tiene un único hilo (bucle de
+ * eventos) que es el dueño exclusivo de su registro de suscripciones, por lo
+ * que el registro no necesita sincronización y los destinos de distintas
+ * particiones se procesan en paralelo sin compartir estado.
+ *
+ * El bucle de eventos solo resuelve los suscriptores; la escritura en las
+ * sesiones la hacen los hilos de salida, compartidos por todas las particiones.
+ * Cada sesión está asignada siempre al mismo hilo de salida, de modo que sus
+ * mensajes llegan en orden y un cliente lento solo retrasa a las sesiones de
+ * su hilo. Cada mensaje genera una única tarea por hilo de salida con todos
+ * los suscriptores de ese hilo, no una por suscriptor.
+ *
+ * Las colas están acotadas. Un MESSAGE que no cabe en la cola de la partición
+ * tras esperar publishTimeoutMillis se descarta; es el único punto en el que se
+ * pierden mensajes. Cuando la cola de un hilo de salida se llena, el bucle de
+ * eventos espera (contrapresión) y la cola de la partición se va llenando.
+ * SUBSCRIBE, UNSUBSCRIBE y DISCONNECT esperan siempre a que haya sitio para no
+ * dejar el registro inconsistente. CONNECT_ACK y DISCONNECT_ACK se envían en el
+ * hilo que recibe la trama, ya que el canal de salida es síncrono.
+ *
+ * Diferencias con el broker simple: solo admite destinos exactos (sin patrones
+ * como /topic/*) y no gestiona heart-beats STOMP (igual que el broker simple
+ * cuando no tiene TaskScheduler).
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class PartitionedBrokerMessageHandler extends AbstractBrokerMessageHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(PartitionedBrokerMessageHandler.class);
+
+    private static final byte[] EMPTY_PAYLOAD = new byte[0];
+
+    // Destinos esperados por partición para dimensionar el registro al iniciar
+    private static final int EXPECTED_DESTINATIONS = 256;
+
+    private final Partition[] partitions;
+
+    // Hilos de salida; se crean al iniciar el broker
+    private volatile OutboundLane[] lanes = new OutboundLane[0];
+
+    // Sesiones STOMP conectadas; solo se modifica en CONNECT / DISCONNECT
+    private final Set<String> sessions = ConcurrentHashMap.newKeySet();
+
+    private int queueCapacity = 10_000;
+    private int outboundThreads;
+    private int outboundQueueCapacity = 10_000;
+    private long publishTimeoutMillis = 100;
+
+    /**
+     * Constructor con parámetros
+     *
+     * @param clientInboundChannel Canal de mensajes entrantes de los clientes
+     * @param clientOutboundChannel Canal de mensajes hacia los clientes
+     * @param brokerChannel Canal de mensajes de la aplicación hacia el broker
+     * @param destinationPrefixes Prefijos de destino que atiende el broker
+     * @param partitionCount Número de particiones (hilos)
+     */
+    public PartitionedBrokerMessageHandler(SubscribableChannel clientInboundChannel,
+                                           MessageChannel clientOutboundChannel,
+                                           SubscribableChannel brokerChannel,
+                                           Collection<String> destinationPrefixes,
+                                           int partitionCount) {
+        super(clientInboundChannel, clientOutboundChannel, brokerChannel, destinationPrefixes);
+        if (partitionCount < 1) {
+            throw new IllegalArgumentException("El número de particiones debe ser mayor que 0");
+        }
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i);
+        }
+    }
+
+    @Override
+    public void startInternal() {
+        // 0 = dos por partición, como el pool de salida por defecto de Spring (dos por núcleo)
+        int laneCount = outboundThreads > 0 ? outboundThreads : partitions.length * 2;
+        OutboundLane[] started = new OutboundLane[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            started[i] = new OutboundLane(i, outboundQueueCapacity);
+        }
+        lanes = started;
+        for (Partition partition : partitions) {
+            partition.start();
+        }
+        logger.info("Broker particionado iniciado con {} particiones y {} hilos de salida",
+                    partitions.length, laneCount);
+        publishBrokerAvailableEvent();
+    }
+
+    @Override
+    public void stopInternal() {
+        publishBrokerUnavailableEvent();
+        for (Partition partition : partitions) {
+            partition.stop();
+        }
+        for (OutboundLane lane : lanes) {
+            lane.stop();
+        }
+    }
+
+    @Override
+    protected void handleMessageInternal(Message<?> message) {
+        MessageHeaders headers = message.getHeaders();
+        String destination = SimpMessageHeaderAccessor.getDestination(headers);
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(headers);
+
+        if (!checkDestinationPrefix(destination)) {
+            return;
+        }
+
+        SimpMessageType messageType = SimpMessageHeaderAccessor.getMessageType(headers);
+        if (SimpMessageType.MESSAGE.equals(messageType)) {
+            // checkDestinationPrefix acepta null: un SEND sin destino se ignora como en el broker simple
+            if (destination == null) {
+                return;
+            }
+            partitionFor(destination).publish(partition -> partition.sendToSubscribers(destination, message));
+        } else if (SimpMessageType.SUBSCRIBE.equals(messageType)) {
+            String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+            if (sessionId == null || subscriptionId == null || destination == null) {
+                logger.warn("SUBSCRIBE sin sesión, suscripción o destino: {}", headers);
+                return;
+            }
+            if (isPattern(destination)) {
+                logger.warn("El broker particionado no admite patrones de destino: {}", destination);
+            }
+            Partition target = partitionFor(destination);
+            for (Partition partition : partitions) {
+                if (partition == target) {
+                    partition.control(p -> p.registry.addSubscription(sessionId, subscriptionId, destination));
+                } else {
+                    // Un id de suscripción reutilizado para un destino de otra partición sustituye al anterior
+                    partition.control(p -> p.registry.removeSubscription(sessionId, subscriptionId));
+                }
+            }
+        } else if (SimpMessageType.UNSUBSCRIBE.equals(messageType)) {
+            String subscriptionId = SimpMessageHeaderAccessor.getSubscriptionId(headers);
+            if (sessionId == null || subscriptionId == null) {
+                return;
+            }
+            // UNSUBSCRIBE no lleva destino: solo la partición que la tiene la elimina
+            for (Partition partition : partitions) {
+                partition.control(p -> p.registry.removeSubscription(sessionId, subscriptionId));
+            }
+        } else if (SimpMessageType.CONNECT.equals(messageType)) {
+            handleConnect(message, sessionId);
+        } else if (SimpMessageType.DISCONNECT.equals(messageType)) {
+            handleDisconnect(message, sessionId);
+        }
+    }
+
+    private void handleConnect(Message<?> message, String sessionId) {
+        if (sessionId == null) {
+            return;
+        }
+        sessions.add(sessionId);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.CONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(message.getHeaders()));
+        accessor.setHeader(SimpMessageHeaderAccessor.CONNECT_MESSAGE_HEADER, message);
+        accessor.setHeader(SimpMessageHeaderAccessor.HEART_BEAT_HEADER, new long[] {0, 0});
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    private void handleDisconnect(Message<?> message, String sessionId) {
+        if (sessionId == null || !sessions.remove(sessionId)) {
+            return;
+        }
+        for (Partition partition : partitions) {
+            partition.control(p -> p.registry.removeSession(sessionId));
+        }
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.DISCONNECT_ACK);
+        accessor.setSessionId(sessionId);
+        accessor.setUser(SimpMessageHeaderAccessor.getUser(message.getHeaders()));
+        accessor.setHeader(SimpMessageHeaderAccessor.DISCONNECT_MESSAGE_HEADER, message);
+        getClientOutboundChannel().send(MessageBuilder.createMessage(EMPTY_PAYLOAD, accessor.getMessageHeaders()));
+    }
+
+    /**
+     * Selecciona la partición con los bits altos del hash; los bits bajos
+     * los usan los mapas de la partición para su tabla
+     */
+    private Partition partitionFor(String destination) {
+        return partitions[slot(destination, partitions.length)];
+    }
+
+    private static int slot(String key, int count) {
+        long hash = StringKeyMap.hash(key) & 0xFFFFFFFFL;
+        return (int) ((hash * count) >>> 32);
+    }
+
+    private static boolean isPattern(String destination) {
+        return destination.indexOf('*') >= 0 || destination.indexOf('{') >= 0;
+    }
+
+    // Configuración (se aplica al iniciar el broker)
+
+    /**
+     * Capacidad de la cola de tareas de cada partición
+     */
+    public void setQueueCapacity(int queueCapacity) {
+        this.queueCapacity = queueCapacity;
+    }
+
+    /**
+     * Número total de hilos de salida; 0 = dos por partición
+     */
+    public void setOutboundThreads(int outboundThreads) {
+        this.outboundThreads = outboundThreads;
+    }
+
+    /**
+     * Capacidad de la cola de cada hilo de salida, en mensajes (no en suscriptores)
+     */
+    public void setOutboundQueueCapacity(int outboundQueueCapacity) {
+        this.outboundQueueCapacity = outboundQueueCapacity;
+    }
+
+    /**
+     * Tiempo máximo que espera un productor a que haya sitio en la cola de la partición
+     */
+    public void setPublishTimeoutMillis(long publishTimeoutMillis) {
+        this.publishTimeoutMillis = publishTimeoutMillis;
+    }
+
+    /**
+     * Partición del broker: un bucle de eventos dueño del registro de suscripciones
+     */
+    private final class Partition implements Runnable {
+
+        private final int index;
+
+        private final PartitionSubscriptionRegistry registry =
+                new PartitionSubscriptionRegistry(EXPECTED_DESTINATIONS);
+
+        private volatile BlockingQueue<Runnable> tasks;
+        private volatile Thread eventLoop;
+        private volatile boolean running;
+
+        Partition(int index) {
+            this.index = index;
+        }
+
+        void start() {
+            tasks = new ArrayBlockingQueue<>(queueCapacity);
+            running = true;
+            eventLoop = new Thread(this, "broker-partition-" + index);
+            eventLoop.setDaemon(true);
+            eventLoop.start();
+        }
+
+        void stop() {
+            running = false;
+            if (eventLoop != null) {
+                eventLoop.interrupt();
+            }
+        }
+
+        /**
+         * Bucle de eventos: ejecuta las tareas de la partición en orden de llegada
+         */
+        @Override
+        public void run() {
+            while (running) {
+                Runnable task;
+                try {
+                    task = tasks.take();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                task.run();
+            }
+        }
+
+        /**
+         * Encola la difusión de un mensaje; si la cola sigue llena tras la espera, se descarta
+         */
+        void publish(PartitionTask task) {
+            if (!running) {
+                return;
+            }
+            try {
+                if (!tasks.offer(wrap(task), publishTimeoutMillis, TimeUnit.MILLISECONDS)) {
+                    logger.warn("Cola de la partición {} llena, se descarta el mensaje", index);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+
+        /**
+         * Encola un cambio del registro; espera a que haya sitio porque no puede perderse
+         */
+        void control(PartitionTask task) {
+            if (!running) {
+                return;
+            }
+            try {
+                tasks.put(wrap(task));
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                logger.warn("Interrumpido al encolar una tarea de registro en la partición {}", index);
+            }
+        }
+
+        private Runnable wrap(PartitionTask task) {
+            return () -> {
+                try {
+                    task.run(this);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Throwable ex) {
+                    logger.error("Error en la partición {} del broker", index, ex);
+                }
+            };
+        }
+
+        /**
+         * Reparte los suscriptores del destino entre los hilos de salida según su sesión
+         * y encola una entrega por hilo; espera si la cola de un hilo está llena
+         */
+        void sendToSubscribers(String destination, Message<?> message) throws InterruptedException {
+            SubscriberList subscribers = registry.findSubscribers(destination);
+            if (subscribers == null) {
+                return;
+            }
+            OutboundLane[] targets = lanes;
+            int size = subscribers.size();
+            if (targets.length == 1) {
+                targets[0].put(new Delivery(message, copy(subscribers, size)));
+                return;
+            }
+
+            int[] laneOf = new int[size];
+            int[] counts = new int[targets.length];
+            for (int i = 0; i < size; i++) {
+                laneOf[i] = slot(subscribers.sessionId(i), targets.length);
+                counts[laneOf[i]]++;
+            }
+            String[][] batches = new String[targets.length][];
+            int[] filled = new int[targets.length];
+            for (int i = 0; i < size; i++) {
+                int lane = laneOf[i];
+                String[] batch = batches[lane];
+                if (batch == null) {
+                    batch = batches[lane] = new String[counts[lane] << 1];
+                }
+                batch[filled[lane]++] = subscribers.sessionId(i);
+                batch[filled[lane]++] = subscribers.subscriptionId(i);
+            }
+            for (int lane = 0; lane < targets.length; lane++) {
+                if (batches[lane] != null) {
+                    targets[lane].put(new Delivery(message, batches[lane]));
+                }
+            }
+        }
+
+        private String[] copy(SubscriberList subscribers, int size) {
+            String[] batch = new String[size << 1];
+            for (int i = 0; i < size; i++) {
+                batch[i << 1] = subscribers.sessionId(i);
+                batch[(i << 1) + 1] = subscribers.subscriptionId(i);
+            }
+            return batch;
+        }
+    }
+
+    /**
+     * Tarea ejecutada en el hilo de una partición
+     */
+    @FunctionalInterface
+    private interface PartitionTask {
+        void run(Partition partition) throws InterruptedException;
+    }
+
+    /**
+     * Entrega de un mensaje a los suscriptores de un hilo de salida
+     * Los pares (sesión, suscripción) se copian al encolarla porque el registro
+     * de la partición puede cambiar antes de que se escriba
+     */
+    private final class Delivery implements Runnable {
+
+        private final Message<?> message;
+
+        // Pares consecutivos: sesión, suscripción
+        private final String[] subscribers;
+
+        Delivery(Message<?> message, String[] subscribers) {
+            this.message = message;
+            this.subscribers = subscribers;
+        }
+
+        @Override
+        public void run() {
+            Object payload = message.getPayload();
+            for (int i = 0; i < subscribers.length; i += 2) {
+                String sessionId = subscribers[i];
+                SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+                accessor.setSessionId(sessionId);
+                accessor.setSubscriptionId(subscribers[i + 1]);
+                accessor.copyHeadersIfAbsent(message.getHeaders());
+                accessor.setLeaveMutable(true);
+                try {
+                    getClientOutboundChannelForSession(sessionId)
+                            .send(MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+                } catch (Throwable ex) {
+                    logger.error("Error al enviar el mensaje a la sesión {}", sessionId, ex);
+                }
+            }
+        }
+    }
+
+    /**
+     * Hilo de salida con su cola acotada de entregas
+     */
+    private static final class OutboundLane implements Runnable {
+
+        private final BlockingQueue<Runnable> deliveries;
+        private final Thread thread;
+        private volatile boolean running = true;
+
+        OutboundLane(int index, int capacity) {
+            this.deliveries = new ArrayBlockingQueue<>(capacity);
+            this.thread = new Thread(this, "broker-outbound-" + index);
+            thread.setDaemon(true);
+            thread.start();
+        }
+
+        void put(Runnable delivery) throws InterruptedException {
+            deliveries.put(delivery);
+        }
+
+        void stop() {
+            running = false;
+            thread.interrupt();
+        }
+
+        @Override
+        public void run() {
+            while (running) {
+                try {
+                    deliveries.take().run();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+            }
+        }
+    }
+}
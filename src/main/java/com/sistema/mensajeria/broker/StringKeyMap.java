@@ -0,0 +1,163 @@
+package com.sistema.mensajeria.broker;
+
+/**
+ * Mapa de claves String con direccionamiento abierto (sondeo lineal)
+ * Guarda el hash de cada clave en un array de enteros para comparar primero
+ * el hash y evitar equals() en la mayoría de colisiones, sin nodos ni entradas
+ * por elemento. Los borrados desplazan las claves siguientes, sin lápidas.
+ *
+ * No es thread-safe: cada partición del broker usa sus propios mapas
+ * desde un único hilo.
+ *
+ * @param <V> Tipo de los valores
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+final class StringKeyMap<V> {
+
+    private static final int MIN_CAPACITY = 16;
+
+    // Factor de carga máximo del 50% para mantener cortas las secuencias de sondeo
+    private static final int LOAD_FACTOR_SHIFT = 1;
+
+    private int[] hashes;
+    private String[] keys;
+    private Object[] values;
+    private int mask;
+    private int size;
+
+    StringKeyMap() {
+        this(MIN_CAPACITY);
+    }
+
+    StringKeyMap(int expectedSize) {
+        allocate(tableSizeFor(expectedSize));
+    }
+
+    int size() {
+        return size;
+    }
+
+    @SuppressWarnings("unchecked")
+    V get(String key) {
+        int hash = hash(key);
+        int index = hash & mask;
+        String candidate;
+        while ((candidate = keys[index]) != null) {
+            if (hashes[index] == hash && candidate.equals(key)) {
+                return (V) values[index];
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    /**
+     * Asocia el valor a la clave
+     *
+     * @return El valor anterior, o null si la clave no existía
+     */
+    @SuppressWarnings("unchecked")
+    V put(String key, V value) {
+        int hash = hash(key);
+        int index = hash & mask;
+        String candidate;
+        while ((candidate = keys[index]) != null) {
+            if (hashes[index] == hash && candidate.equals(key)) {
+                V previous = (V) values[index];
+                values[index] = value;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        hashes[index] = hash;
+        keys[index] = key;
+        values[index] = value;
+        if (++size << LOAD_FACTOR_SHIFT > keys.length) {
+            resize(keys.length << 1);
+        }
+        return null;
+    }
+
+    /**
+     * Elimina la clave desplazando hacia atrás las entradas de su secuencia de sondeo
+     *
+     * @return El valor eliminado, o null si la clave no existía
+     */
+    @SuppressWarnings("unchecked")
+    V remove(String key) {
+        int hash = hash(key);
+        int index = hash & mask;
+        String candidate;
+        while ((candidate = keys[index]) != null) {
+            if (hashes[index] == hash && candidate.equals(key)) {
+                V previous = (V) values[index];
+                shiftBack(index);
+                size--;
+                return previous;
+            }
+            index = (index + 1) & mask;
+        }
+        return null;
+    }
+
+    private void shiftBack(int gap) {
+        int index = gap;
+        while (true) {
+            index = (index + 1) & mask;
+            if (keys[index] == null) {
+                break;
+            }
+            int home = hashes[index] & mask;
+            // La entrada se mueve al hueco solo si su posición ideal no está entre el hueco y ella
+            if (((index - home) & mask) >= ((index - gap) & mask)) {
+                hashes[gap] = hashes[index];
+                keys[gap] = keys[index];
+                values[gap] = values[index];
+                gap = index;
+            }
+        }
+        hashes[gap] = 0;
+        keys[gap] = null;
+        values[gap] = null;
+    }
+
+    private void resize(int capacity) {
+        int[] oldHashes = hashes;
+        String[] oldKeys = keys;
+        Object[] oldValues = values;
+        allocate(capacity);
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldKeys[i] != null) {
+                int index = oldHashes[i] & mask;
+                while (keys[index] != null) {
+                    index = (index + 1) & mask;
+                }
+                hashes[index] = oldHashes[i];
+                keys[index] = oldKeys[i];
+                values[index] = oldValues[i];
+            }
+        }
+    }
+
+    private void allocate(int capacity) {
+        hashes = new int[capacity];
+        keys = new String[capacity];
+        values = new Object[capacity];
+        mask = capacity - 1;
+    }
+
+    private static int tableSizeFor(int expectedSize) {
+        int capacity = Integer.highestOneBit(Math.max(MIN_CAPACITY, expectedSize << LOAD_FACTOR_SHIFT) - 1) << 1;
+        return Math.max(MIN_CAPACITY, capacity);
+    }
+
+    /**
+     * Dispersa los bits altos del hashCode (cacheado por String) sobre los bajos que usa la máscara
+     */
+    static int hash(String key) {
+        int h = key.hashCode();
+        h *= 0x9E3779B9;
+        return h ^ (h >>> 16);
+    }
+}
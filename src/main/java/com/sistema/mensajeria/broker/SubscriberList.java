@@ -0,0 +1,113 @@
+package com.sistema.mensajeria.broker;
+
+import java.util.Arrays;
+
+/**
+ * Suscriptores de un destino en arrays paralelos (sesión, suscripción)
+ * Las bajas mueven el último elemento al hueco, por lo que el orden no se conserva.
+ * Las listas grandes (p. ej. /topic/public, al que se suscriben todos los usuarios)
+ * indexan la posición de cada par para que las bajas no recorran la lista.
+ *
+ * No es thread-safe: solo la usa el hilo de su partición.
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+final class SubscriberList {
+
+    private static final int INITIAL_CAPACITY = 4;
+
+    // Tamaño a partir del cual se crea el índice; por debajo recorrer la lista es más barato
+    static final int INDEX_THRESHOLD = 16;
+
+    // Separador de la clave del índice; los ids de sesión que genera el servidor no lo contienen
+    private static final char KEY_SEPARATOR = '\0';
+
+    private String[] sessionIds = new String[INITIAL_CAPACITY];
+    private String[] subscriptionIds = new String[INITIAL_CAPACITY];
+    private int size;
+
+    // Posición de cada par (sesión, suscripción); null mientras la lista es pequeña
+    private StringKeyMap<Integer> positions;
+
+    int size() {
+        return size;
+    }
+
+    boolean isEmpty() {
+        return size == 0;
+    }
+
+    String sessionId(int index) {
+        return sessionIds[index];
+    }
+
+    String subscriptionId(int index) {
+        return subscriptionIds[index];
+    }
+
+    /**
+     * Añade un suscriptor; el registro garantiza que el par no está ya en la lista
+     */
+    void add(String sessionId, String subscriptionId) {
+        if (size == sessionIds.length) {
+            sessionIds = Arrays.copyOf(sessionIds, size << 1);
+            subscriptionIds = Arrays.copyOf(subscriptionIds, size << 1);
+        }
+        sessionIds[size] = sessionId;
+        subscriptionIds[size] = subscriptionId;
+        if (positions != null) {
+            positions.put(key(sessionId, subscriptionId), size);
+        } else if (size + 1 > INDEX_THRESHOLD) {
+            buildIndex(size + 1);
+        }
+        size++;
+    }
+
+    /**
+     * Elimina la suscripción indicada
+     *
+     * @return true si existía
+     */
+    boolean remove(String sessionId, String subscriptionId) {
+        if (positions != null) {
+            Integer index = positions.remove(key(sessionId, subscriptionId));
+            if (index == null) {
+                return false;
+            }
+            removeAt(index);
+            return true;
+        }
+        for (int i = 0; i < size; i++) {
+            if (sessionIds[i].equals(sessionId) && subscriptionIds[i].equals(subscriptionId)) {
+                removeAt(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void removeAt(int index) {
+        int last = --size;
+        if (index != last) {
+            sessionIds[index] = sessionIds[last];
+            subscriptionIds[index] = subscriptionIds[last];
+            if (positions != null) {
+                positions.put(key(sessionIds[index], subscriptionIds[index]), index);
+            }
+        }
+        sessionIds[last] = null;
+        subscriptionIds[last] = null;
+    }
+
+    private void buildIndex(int count) {
+        positions = new StringKeyMap<>(count << 1);
+        for (int i = 0; i < count; i++) {
+            positions.put(key(sessionIds[i], subscriptionIds[i]), i);
+        }
+    }
+
+    private static String key(String sessionId, String subscriptionId) {
+        return sessionId + KEY_SEPARATOR + subscriptionId;
+    }
+}
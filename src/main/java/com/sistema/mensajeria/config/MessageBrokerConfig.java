@@ -0,0 +1,92 @@
+package com.sistema.mensajeria.config;
+
+import com.sistema.mensajeria.broker.PartitionedBrokerMessageHandler;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.task.SyncTaskExecutor;
+import org.springframework.core.task.TaskExecutor;
+import org.springframework.messaging.simp.broker.AbstractBrokerMessageHandler;
+import org.springframework.messaging.simp.user.UserDestinationResolver;
+import org.springframework.messaging.support.AbstractSubscribableChannel;
+import org.springframework.web.socket.config.annotation.DelegatingWebSocketMessageBrokerConfiguration;
+
+import java.util.List;
+
+/**
+ * Configuración de la infraestructura STOMP (equivalente a @EnableWebSocketMessageBroker)
+ * Permite sustituir el broker simple por el broker particionado cuando
+ * mensajeria.broker.partitioned=true; los endpoints y prefijos siguen
+ * definidos en WebSocketConfig
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class MessageBrokerConfig extends DelegatingWebSocketMessageBrokerConfiguration {
+
+    private static final Logger logger = LoggerFactory.getLogger(MessageBrokerConfig.class);
+
+    @Value("${mensajeria.broker.partitioned:false}")
+    private boolean partitioned;
+
+    // 0 = una partición por núcleo disponible
+    @Value("${mensajeria.broker.partitions:0}")
+    private int partitions;
+
+    @Value("${mensajeria.broker.queue-capacity:10000}")
+    private int queueCapacity;
+
+    // Hilos de salida en total; 0 = dos por partición
+    @Value("${mensajeria.broker.outbound-threads:0}")
+    private int outboundThreads;
+
+    @Value("${mensajeria.broker.outbound-queue-capacity:10000}")
+    private int outboundQueueCapacity;
+
+    @Value("${mensajeria.broker.publish-timeout-ms:100}")
+    private long publishTimeoutMillis;
+
+    /**
+     * Canal hacia los clientes
+     * Con el broker particionado es síncrono: el broker escribe en las sesiones
+     * desde sus propios hilos de salida, que conservan el orden por sesión
+     */
+    @Bean
+    @Override
+    public AbstractSubscribableChannel clientOutboundChannel(
+            @Qualifier("clientOutboundChannelExecutor") TaskExecutor executor) {
+        return super.clientOutboundChannel(partitioned ? new SyncTaskExecutor() : executor);
+    }
+
+    /**
+     * Broker en memoria: el simple de Spring o el particionado por destino
+     */
+    @Bean
+    @Override
+    public AbstractBrokerMessageHandler simpleBrokerMessageHandler(
+            AbstractSubscribableChannel clientInboundChannel, AbstractSubscribableChannel clientOutboundChannel,
+            AbstractSubscribableChannel brokerChannel, UserDestinationResolver userDestinationResolver) {
+        if (!partitioned) {
+            return super.simpleBrokerMessageHandler(clientInboundChannel, clientOutboundChannel,
+                    brokerChannel, userDestinationResolver);
+        }
+        // Registra los prefijos /app de WebSocketConfig, que usan el resto de componentes STOMP
+        getBrokerRegistry(clientInboundChannel, clientOutboundChannel);
+
+        int partitionCount = partitions > 0 ? partitions : Runtime.getRuntime().availableProcessors();
+        logger.info("Usando el broker particionado con {} particiones", partitionCount);
+        PartitionedBrokerMessageHandler handler = new PartitionedBrokerMessageHandler(clientInboundChannel,
+                clientOutboundChannel, brokerChannel, List.of(WebSocketConfig.TOPIC_PREFIX), partitionCount);
+        handler.setQueueCapacity(queueCapacity);
+        handler.setOutboundThreads(outboundThreads);
+        handler.setOutboundQueueCapacity(outboundQueueCapacity);
+        handler.setPublishTimeoutMillis(publishTimeoutMillis);
+        return handler;
+    }
+}
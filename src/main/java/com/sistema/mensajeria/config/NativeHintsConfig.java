@@ -0,0 +1,77 @@
+package com.sistema.mensajeria.config;
+
+import com.sistema.mensajeria.controller.ChatController;
+import com.sistema.mensajeria.controller.LeanChatController;
+import com.sistema.mensajeria.listener.AotConditionsListener;
+import com.sistema.mensajeria.listener.WebSocketEventListener;
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.ConnectionNotification;
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.model.LeanConnectionNotification;
+import com.sistema.mensajeria.model.User;
+import org.springframework.aot.hint.BindingReflectionHintsRegistrar;
+import org.springframework.aot.hint.MemberCategory;
+import org.springframework.aot.hint.RuntimeHints;
+import org.springframework.aot.hint.RuntimeHintsRegistrar;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.ImportRuntimeHints;
+
+/**
+ * Configuración de hints para la compilación AOT / imagen nativa de GraalVM
+ * Registra la reflexión necesaria para los modelos serializados con Jackson
+ * y para los componentes STOMP que Spring invoca por reflexión
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Configuration
+@ImportRuntimeHints(NativeHintsConfig.MensajeriaRuntimeHints.class)
+public class NativeHintsConfig {
+
+    /**
+     * Registrador de hints utilizado durante el procesamiento AOT
+     */
+    static class MensajeriaRuntimeHints implements RuntimeHintsRegistrar {
+
+        private final BindingReflectionHintsRegistrar bindingRegistrar = new BindingReflectionHintsRegistrar();
+
+        @Override
+        public void registerHints(RuntimeHints hints, ClassLoader classLoader) {
+            // Modelos que viajan como payload JSON en los destinos /app y /topic
+            bindingRegistrar.registerReflectionHints(hints.reflection(),
+                    ChatMessage.class,
+                    ChatMessage.MessageType.class,
+                    ConnectionNotification.class,
+                    ConnectionNotification.NotificationType.class,
+                    LeanChatMessage.class,
+                    LeanConnectionNotification.class,
+                    User.class);
+
+            // Configuración STOMP y manejadores @MessageMapping / @EventListener
+            hints.reflection()
+                    .registerType(WebSocketConfig.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS)
+                    .registerType(MessageBrokerConfig.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS)
+                    .registerType(ChatController.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS)
+                    .registerType(LeanChatController.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS)
+                    .registerType(WebSocketEventListener.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS)
+                    .registerType(AotConditionsListener.class,
+                            MemberCategory.INVOKE_DECLARED_CONSTRUCTORS,
+                            MemberCategory.INVOKE_PUBLIC_METHODS,
+                            MemberCategory.DECLARED_FIELDS);
+        }
+    }
+}
@@ -0,0 +1,108 @@
+package com.sistema.mensajeria.config;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.mensajeria.reactive.ReactiveChatBroker;
+import com.sistema.mensajeria.reactive.ReactiveChatService;
+import com.sistema.mensajeria.reactive.ReactiveChatWebSocketHandler;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.embedded.netty.NettyReactiveWebServerFactory;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.MediaType;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.function.server.RequestPredicates;
+import org.springframework.web.reactive.function.server.RouterFunction;
+import org.springframework.web.reactive.function.server.RouterFunctions;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import org.springframework.web.reactive.handler.SimpleUrlHandlerMapping;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.server.WebSocketService;
+import org.springframework.web.reactive.socket.server.support.HandshakeWebSocketService;
+import org.springframework.web.reactive.socket.server.upgrade.ReactorNettyRequestUpgradeStrategy;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Configuración del modo reactivo (WebFlux sobre Reactor Netty)
+ * Expone el endpoint "/ws-chat" con STOMP sobre WebSocket, tanto directo como
+ * con el transporte WebSocket de SockJS que utiliza el cliente web
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Configuration
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveWebSocketConfig implements WebFluxConfigurer {
+
+    // Frames pendientes máximos por sesión antes de considerarla lenta
+    @Value("${mensajeria.reactive.session-buffer-size:256}")
+    private int sessionBufferSize;
+
+    /**
+     * Fuerza Reactor Netty como servidor: Tomcat sigue en el classpath para el modo
+     * servlet y Spring Boot lo preferiría también en el modo reactivo
+     *
+     * @return Fábrica del servidor Netty
+     */
+    @Bean
+    public NettyReactiveWebServerFactory nettyReactiveWebServerFactory(
+            ObjectProvider<NettyServerCustomizer> serverCustomizers) {
+        NettyReactiveWebServerFactory serverFactory = new NettyReactiveWebServerFactory();
+        serverFactory.getServerCustomizers().addAll(serverCustomizers.orderedStream().toList());
+        return serverFactory;
+    }
+
+    /**
+     * Estrategia de upgrade de Reactor Netty; sin ella se detectaría la de Tomcat
+     *
+     * @return Servicio de handshake WebSocket
+     */
+    @Override
+    public WebSocketService getWebSocketService() {
+        return new HandshakeWebSocketService(new ReactorNettyRequestUpgradeStrategy());
+    }
+
+    /**
+     * Registra los manejadores WebSocket del endpoint "/ws-chat"
+     *
+     * @return Mapeo de URLs a manejadores WebSocket
+     */
+    @Bean
+    public HandlerMapping chatWebSocketHandlerMapping(ReactiveChatBroker broker,
+                                                      ReactiveChatService chatService,
+                                                      ObjectMapper objectMapper) {
+        Map<String, WebSocketHandler> handlers = new LinkedHashMap<>();
+        // STOMP directo sobre WebSocket (mismo path que ofrece SockJS en el modo servlet)
+        handlers.put("/ws-chat/websocket",
+                new ReactiveChatWebSocketHandler(broker, chatService, objectMapper, false, sessionBufferSize));
+        // Transporte WebSocket de SockJS: /ws-chat/{server}/{session}/websocket
+        handlers.put("/ws-chat/*/*/websocket",
+                new ReactiveChatWebSocketHandler(broker, chatService, objectMapper, true, sessionBufferSize));
+        return new SimpleUrlHandlerMapping(handlers, -1);
+    }
+
+    /**
+     * Endpoint de información de SockJS; solo se anuncia el transporte WebSocket
+     *
+     * @return Ruta GET /ws-chat/info
+     */
+    @Bean
+    public RouterFunction<ServerResponse> sockJsInfoRoute() {
+        return RouterFunctions.route(RequestPredicates.GET("/ws-chat/info"), request ->
+                ServerResponse.ok()
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .header("Cache-Control", "no-store, no-cache, must-revalidate, max-age=0")
+                        .bodyValue(Map.of(
+                                "entropy", ThreadLocalRandom.current().nextInt(),
+                                "origins", List.of("*:*"),
+                                "cookie_needed", false,
+                                "websocket", true)));
+    }
+}
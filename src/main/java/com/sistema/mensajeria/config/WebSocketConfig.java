@@ -1,22 +1,28 @@
 package com.sistema.mensajeria.config;
 
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.messaging.simp.config.MessageBrokerRegistry;
-import org.springframework.web.socket.config.annotation.EnableWebSocketMessageBroker;
 import org.springframework.web.socket.config.annotation.StompEndpointRegistry;
 import org.springframework.web.socket.config.annotation.WebSocketMessageBrokerConfigurer;
 
 /**
  * Configuración del WebSocket utilizando STOMP sobre WebSocket
  * Esta clase configura los endpoints y el broker de mensajes
+ * (la infraestructura STOMP se habilita en MessageBrokerConfig)
  * 
  * @author Sistema de Mensajería
  * @version 1.0.0
  */
 @Configuration
-@EnableWebSocketMessageBroker
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
 
+    /**
+     * Prefijo de los destinos atendidos por el broker en memoria
+     */
+    public static final String TOPIC_PREFIX = "/topic";
+
     /**
      * Configura el broker de mensajes para distribuir mensajes a los clientes suscritos
      * 
@@ -25,7 +31,7 @@ public class WebSocketConfig implements WebSocketMessageBrokerConfigurer {
     @Override
     public void configureMessageBroker(MessageBrokerRegistry registry) {
         // Habilita un broker simple en memoria para los destinos que comienzan con /topic
-        registry.enableSimpleBroker("/topic");
+        registry.enableSimpleBroker(TOPIC_PREFIX);
         
         // Define el prefijo para los mensajes destinados a métodos anotados con @MessageMapping
         registry.setApplicationDestinationPrefixes("/app");
@@ -0,0 +1,19 @@
+package com.sistema.mensajeria.controller;
+
+/**
+ * Contrato común de los controladores de chat del modo servlet
+ * Permite al listener de eventos notificar desconexiones sin depender
+ * de qué modelo de mensajes está activo
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public interface ChatSessionHandler {
+
+    /**
+     * Maneja la desconexión de un usuario
+     *
+     * @param sessionId ID de sesión del usuario desconectado
+     */
+    void handleUserDisconnection(String sessionId);
+}
@@ -0,0 +1,147 @@
+package com.sistema.mensajeria.controller;
+
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.model.User;
+import com.sistema.mensajeria.service.ChatService;
+import com.sistema.mensajeria.service.LeanMessageFactory;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.messaging.handler.annotation.MessageMapping;
+import org.springframework.messaging.handler.annotation.Payload;
+import org.springframework.messaging.handler.annotation.SendTo;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.stereotype.Controller;
+
+import java.util.Map;
+
+/**
+ * Controlador WebSocket con el modelo ligero de mensajes
+ * Atiende los mismos destinos que ChatController cuando mensajeria.model.lean=true,
+ * usando records inmutables con timestamp en milisegundos
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Controller
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@ConditionalOnProperty(name = "mensajeria.model.lean", havingValue = "true")
+public class LeanChatController implements ChatSessionHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(LeanChatController.class);
+
+    // Atributo de sesión con el nombre internado al unirse al chat
+    private static final String USERNAME_ATTRIBUTE = "username";
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private SimpMessagingTemplate messagingTemplate;
+
+    @Autowired
+    private LeanMessageFactory messageFactory;
+
+    /**
+     * Maneja los mensajes de chat enviados por los usuarios
+     *
+     * @param chatMessage Mensaje de chat recibido
+     * @param headerAccessor Acceso a los headers de la sesión WebSocket
+     * @return El mensaje procesado para ser enviado a todos los clientes
+     */
+    @MessageMapping("/chat.sendMessage")
+    @SendTo(ChatService.PUBLIC_TOPIC)
+    public LeanChatMessage sendMessage(@Payload LeanChatMessage chatMessage,
+                                       SimpMessageHeaderAccessor headerAccessor) {
+        String content = chatService.validateContent(chatMessage.sender(), chatMessage.content());
+        if (content == null) {
+            return null;
+        }
+
+        LeanChatMessage message = messageFactory.chat(sessionSender(headerAccessor, chatMessage), content);
+
+        logger.info("Mensaje recibido de {}: {}", message.sender(), message.content());
+
+        return message;
+    }
+
+    /**
+     * Maneja la conexión de un nuevo usuario al chat
+     *
+     * @param chatMessage Mensaje con información del usuario
+     * @param headerAccessor Acceso a los headers de la sesión WebSocket
+     * @return Mensaje de notificación de conexión
+     */
+    @MessageMapping("/chat.addUser")
+    @SendTo(ChatService.PUBLIC_TOPIC)
+    public LeanChatMessage addUser(@Payload LeanChatMessage chatMessage,
+                                   SimpMessageHeaderAccessor headerAccessor) {
+        if (!chatService.validateSender(chatMessage.sender())) {
+            return null;
+        }
+
+        // El nombre se interna una sola vez por sesión y se reutiliza en sus mensajes
+        String sender = messageFactory.internSender(chatMessage.sender());
+        headerAccessor.getSessionAttributes().put(USERNAME_ATTRIBUTE, sender);
+
+        if (!chatService.registerUser(sender, headerAccessor.getSessionId())) {
+            // La sesión ya estaba registrada y UserService conserva su primer nombre,
+            // que es el que se libera al desconectar
+            messageFactory.releaseSender(sender);
+        }
+
+        sendUserCountUpdate();
+
+        return messageFactory.join(sender);
+    }
+
+    /**
+     * Maneja las notificaciones de "usuario escribiendo"
+     *
+     * @param chatMessage Mensaje con información del usuario escribiendo
+     * @param headerAccessor Acceso a los headers de la sesión WebSocket
+     */
+    @MessageMapping("/chat.typing")
+    @SendTo(ChatService.PUBLIC_TOPIC)
+    public LeanChatMessage userTyping(@Payload LeanChatMessage chatMessage,
+                                      SimpMessageHeaderAccessor headerAccessor) {
+        return messageFactory.typing(sessionSender(headerAccessor, chatMessage));
+    }
+
+    /**
+     * Nombre internado guardado en la sesión, o el del payload si la sesión aún no se unió al chat
+     */
+    private static String sessionSender(SimpMessageHeaderAccessor headerAccessor, LeanChatMessage chatMessage) {
+        Map<String, Object> attributes = headerAccessor.getSessionAttributes();
+        Object username = attributes != null ? attributes.get(USERNAME_ATTRIBUTE) : null;
+        return username != null ? (String) username : chatMessage.sender();
+    }
+
+    /**
+     * Envía una actualización del conteo de usuarios a todos los clientes
+     */
+    private void sendUserCountUpdate() {
+        messagingTemplate.convertAndSend(ChatService.USER_COUNT_TOPIC,
+                messageFactory.userCount(chatService.getUserCount()));
+    }
+
+    /**
+     * Maneja la desconexión de un usuario
+     *
+     * @param sessionId ID de sesión del usuario desconectado
+     */
+    @Override
+    public void handleUserDisconnection(String sessionId) {
+        User disconnectedUser = chatService.unregisterUser(sessionId);
+
+        if (disconnectedUser != null) {
+            messagingTemplate.convertAndSend(ChatService.PUBLIC_TOPIC, messageFactory.leave(disconnectedUser.getUsername()));
+            messageFactory.releaseSender(disconnectedUser.getUsername());
+
+            sendUserCountUpdate();
+        }
+    }
+}
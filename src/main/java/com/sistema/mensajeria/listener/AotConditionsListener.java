@@ -0,0 +1,56 @@
+package com.sistema.mensajeria.listener;
+
+import com.sistema.mensajeria.controller.ChatSessionHandler;
+import com.sistema.mensajeria.controller.LeanChatController;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.aot.AotDetector;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Listener que avisa cuando las propiedades de arranque no coinciden con los
+ * beans activos. Con artefactos AOT (JAR -Pcds o imagen nativa) las condiciones
+ * se evalúan al compilar, por lo que cambiar mensajeria.model.lean al arrancar
+ * no tiene efecto
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+public class AotConditionsListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(AotConditionsListener.class);
+
+    @Autowired
+    private ChatSessionHandler chatSessionHandler;
+
+    @Value("${mensajeria.model.lean:false}")
+    private boolean leanRequested;
+
+    /**
+     * Compara el modelo de mensajes solicitado con el controlador registrado
+     *
+     * @param event Evento de aplicación lista
+     */
+    @EventListener
+    public void checkFrozenConditions(ApplicationReadyEvent event) {
+        boolean leanActive = chatSessionHandler instanceof LeanChatController;
+        if (leanRequested == leanActive) {
+            return;
+        }
+        if (AotDetector.useGeneratedArtifacts()) {
+            logger.warn("mensajeria.model.lean={} se ignora: los artefactos AOT se generaron con el modelo {}. "
+                        + "Regenerarlos con mvn -Pcds package -Daot.jvmArguments=-Dmensajeria.model.lean={}",
+                        leanRequested, leanActive ? "ligero" : "clásico", leanRequested);
+        } else {
+            logger.warn("mensajeria.model.lean={} no coincide con el controlador activo ({})",
+                        leanRequested, chatSessionHandler.getClass().getSimpleName());
+        }
+    }
+}
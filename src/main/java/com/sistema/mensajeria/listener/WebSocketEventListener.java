@@ -1,9 +1,10 @@
 package com.sistema.mensajeria.listener;
 
-import com.sistema.mensajeria.controller.ChatController;
+import com.sistema.mensajeria.controller.ChatSessionHandler;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
 import org.springframework.context.event.EventListener;
 import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
 import org.springframework.stereotype.Component;
@@ -18,12 +19,13 @@ import org.springframework.web.socket.messaging.SessionDisconnectEvent;
  * @version 1.0.0
  */
 @Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
 public class WebSocketEventListener {
 
     private static final Logger logger = LoggerFactory.getLogger(WebSocketEventListener.class);
 
     @Autowired
-    private ChatController chatController;
+    private ChatSessionHandler chatSessionHandler;
 
     /**
      * Maneja el evento de conexión de un nuevo cliente WebSocket
@@ -53,7 +55,7 @@ public class WebSocketEventListener {
         
         if (username != null) {
             logger.info("Usuario desconectado: {} (SessionId: {})", username, sessionId);
-            chatController.handleUserDisconnection(sessionId);
+            chatSessionHandler.handleUserDisconnection(sessionId);
         } else {
             logger.info("Sesión desconectada sin usuario registrado. SessionId: {}", sessionId);
         }
@@ -0,0 +1,17 @@
+package com.sistema.mensajeria.model;
+
+/**
+ * Variante inmutable y ligera de ChatMessage
+ * El timestamp se expresa en milisegundos desde epoch, de modo que no se crea
+ * ningún LocalDateTime por mensaje ni se formatea con @JsonFormat al enviarlo
+ *
+ * @param type Tipo de mensaje
+ * @param content Contenido del mensaje
+ * @param sender Nombre del emisor
+ * @param timestamp Milisegundos desde epoch
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public record LeanChatMessage(ChatMessage.MessageType type, String content, String sender, long timestamp) {
+}
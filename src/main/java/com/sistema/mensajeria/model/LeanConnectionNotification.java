@@ -0,0 +1,22 @@
+package com.sistema.mensajeria.model;
+
+/**
+ * Variante inmutable y ligera de ConnectionNotification
+ * El mensaje se recibe ya construido a partir de plantillas, en lugar de
+ * reconstruirse en cada setter
+ *
+ * @param type Tipo de notificación
+ * @param username Usuario afectado, o null en actualizaciones del conteo
+ * @param totalUsers Número de usuarios conectados
+ * @param timestamp Milisegundos desde epoch
+ * @param message Texto de la notificación
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public record LeanConnectionNotification(ConnectionNotification.NotificationType type,
+                                         String username,
+                                         int totalUsers,
+                                         long timestamp,
+                                         String message) {
+}
@@ -0,0 +1,166 @@
+package com.sistema.mensajeria.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Component;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Broker en memoria del modo reactivo
+ * Equivalente al broker simple de STOMP: mantiene las suscripciones por destino
+ * y distribuye cada mensaje a los sinks de las sesiones suscritas
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveChatBroker {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChatBroker.class);
+
+    private static final String TOPIC_PREFIX = "/topic/";
+
+    // Intervalo de heart-beat de SockJS (mismo valor por defecto que Spring)
+    private static final Duration HEARTBEAT_INTERVAL = Duration.ofSeconds(25);
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    // Sesiones abiertas por ID de sesión
+    private final Map<String, ReactiveChatSession> sessions = new ConcurrentHashMap<>();
+
+    // Suscripciones por destino
+    private final Map<String, Set<Subscription>> subscriptions = new ConcurrentHashMap<>();
+
+    private final AtomicLong messageIds = new AtomicLong();
+
+    private Disposable heartbeat;
+
+    /**
+     * Suscripción de una sesión a un destino
+     */
+    private record Subscription(ReactiveChatSession session, String id) {
+    }
+
+    /**
+     * Un único temporizador envía los heart-beats de todas las sesiones
+     */
+    @PostConstruct
+    public void startHeartbeat() {
+        heartbeat = Flux.interval(HEARTBEAT_INTERVAL)
+                .subscribe(tick -> sessions.values().forEach(ReactiveChatSession::heartbeat));
+    }
+
+    @PreDestroy
+    public void stopHeartbeat() {
+        if (heartbeat != null) {
+            heartbeat.dispose();
+        }
+    }
+
+    /**
+     * Registra una sesión recién abierta
+     */
+    public void register(ReactiveChatSession session) {
+        sessions.put(session.getId(), session);
+    }
+
+    /**
+     * Elimina una sesión y todas sus suscripciones
+     *
+     * @return true si la sesión estaba registrada
+     */
+    public boolean unregister(ReactiveChatSession session) {
+        if (sessions.remove(session.getId()) == null) {
+            return false;
+        }
+        session.getSubscriptions().forEach((id, destination) -> removeSubscription(destination, session, id));
+        session.getSubscriptions().clear();
+        return true;
+    }
+
+    /**
+     * Suscribe una sesión a un destino /topic
+     *
+     * @return true si el destino es válido
+     */
+    public boolean subscribe(ReactiveChatSession session, String subscriptionId, String destination) {
+        if (subscriptionId == null || destination == null || !destination.startsWith(TOPIC_PREFIX)) {
+            logger.warn("Suscripción inválida a {} en sesión {}", destination, session.getId());
+            return false;
+        }
+        session.getSubscriptions().put(subscriptionId, destination);
+        // El alta se hace dentro de compute para no competir con removeSubscription,
+        // que elimina el conjunto del mapa cuando queda vacío
+        subscriptions.compute(destination, (key, subscribers) -> {
+            if (subscribers == null) {
+                subscribers = ConcurrentHashMap.newKeySet();
+            }
+            subscribers.add(new Subscription(session, subscriptionId));
+            return subscribers;
+        });
+        return true;
+    }
+
+    /**
+     * Cancela una suscripción de la sesión
+     */
+    public void unsubscribe(ReactiveChatSession session, String subscriptionId) {
+        if (subscriptionId == null) {
+            return;
+        }
+        String destination = session.getSubscriptions().remove(subscriptionId);
+        if (destination != null) {
+            removeSubscription(destination, session, subscriptionId);
+        }
+    }
+
+    private void removeSubscription(String destination, ReactiveChatSession session, String subscriptionId) {
+        subscriptions.computeIfPresent(destination, (key, subscribers) -> {
+            subscribers.remove(new Subscription(session, subscriptionId));
+            return subscribers.isEmpty() ? null : subscribers;
+        });
+    }
+
+    /**
+     * Serializa el payload una sola vez y lo distribuye a los suscriptores del destino
+     */
+    public void publish(String destination, Object payload) {
+        try {
+            publishJson(destination, objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            logger.error("No se pudo serializar el mensaje para {}", destination, e);
+        }
+    }
+
+    /**
+     * Distribuye un payload JSON ya serializado a los suscriptores del destino
+     */
+    public void publishJson(String destination, String json) {
+        Set<Subscription> subscribers = subscriptions.get(destination);
+        if (subscribers == null) {
+            return;
+        }
+        long messageId = messageIds.incrementAndGet();
+        byte[] payload = json.getBytes(StandardCharsets.UTF_8);
+        for (Subscription subscription : subscribers) {
+            subscription.session().send(
+                    StompFrame.message(destination, subscription.id(), messageId, payload));
+        }
+    }
+}
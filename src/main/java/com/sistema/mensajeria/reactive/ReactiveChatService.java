@@ -0,0 +1,134 @@
+package com.sistema.mensajeria.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.User;
+import com.sistema.mensajeria.service.ChatService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.stereotype.Service;
+
+/**
+ * Operaciones /chat.* del modo reactivo
+ * Las reglas del chat están en ChatService, compartido con los controladores del
+ * modo servlet; aquí solo se despachan los frames SEND y se publica en el broker reactivo
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+public class ReactiveChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChatService.class);
+
+    @Autowired
+    private ChatService chatService;
+
+    @Autowired
+    private ReactiveChatBroker broker;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    /**
+     * Despacha un frame SEND según su destino
+     *
+     * @param session Sesión que envía el frame
+     * @param destination Destino STOMP del frame
+     * @param body Cuerpo JSON del frame
+     */
+    public void handleSend(ReactiveChatSession session, String destination, String body) {
+        if (destination == null) {
+            logger.warn("Frame SEND sin destino en sesión {}", session.getId());
+            return;
+        }
+
+        // Igual que el broker simple: los destinos /topic se reenvían tal cual
+        if (destination.startsWith("/topic/")) {
+            broker.publishJson(destination, body);
+            return;
+        }
+
+        ChatMessage chatMessage = readMessage(body);
+        if (chatMessage == null) {
+            return;
+        }
+
+        switch (destination) {
+            case "/app/chat.sendMessage" -> sendMessage(chatMessage);
+            case "/app/chat.addUser" -> addUser(session, chatMessage);
+            case "/app/chat.typing" -> userTyping(chatMessage);
+            default -> logger.warn("Destino desconocido: {}", destination);
+        }
+    }
+
+    private ChatMessage readMessage(String body) {
+        try {
+            return objectMapper.readValue(body, ChatMessage.class);
+        } catch (JsonProcessingException e) {
+            logger.warn("Payload de mensaje inválido: {}", e.getOriginalMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Publica un mensaje de chat si supera la validación
+     *
+     * @param chatMessage Mensaje de chat recibido
+     */
+    public void sendMessage(ChatMessage chatMessage) {
+        ChatMessage message = chatService.chat(chatMessage);
+        if (message != null) {
+            broker.publish(ChatService.PUBLIC_TOPIC, message);
+        }
+    }
+
+    /**
+     * Registra al usuario de la sesión y publica su alta
+     *
+     * @param session Sesión reactiva del usuario
+     * @param chatMessage Mensaje con información del usuario
+     */
+    public void addUser(ReactiveChatSession session, ChatMessage chatMessage) {
+        if (!chatService.validateSender(chatMessage.getSender())) {
+            return;
+        }
+
+        session.setUsername(chatMessage.getSender());
+        chatService.registerUser(chatMessage.getSender(), session.getId());
+
+        broker.publish(ChatService.PUBLIC_TOPIC, chatService.join(chatMessage));
+        sendUserCountUpdate();
+    }
+
+    /**
+     * Publica una notificación de "usuario escribiendo"
+     *
+     * @param chatMessage Mensaje con información del usuario escribiendo
+     */
+    public void userTyping(ChatMessage chatMessage) {
+        broker.publish(ChatService.PUBLIC_TOPIC, chatService.typing(chatMessage));
+    }
+
+    private void sendUserCountUpdate() {
+        broker.publish(ChatService.USER_COUNT_TOPIC, chatService.userCount());
+    }
+
+    /**
+     * Elimina al usuario de una sesión cerrada y publica su salida
+     *
+     * @param sessionId ID de sesión del usuario desconectado
+     */
+    public void handleUserDisconnection(String sessionId) {
+        User disconnectedUser = chatService.unregisterUser(sessionId);
+
+        if (disconnectedUser != null) {
+            broker.publish(ChatService.PUBLIC_TOPIC, chatService.leave(disconnectedUser.getUsername()));
+            sendUserCountUpdate();
+        }
+    }
+}
@@ -0,0 +1,233 @@
+package com.sistema.mensajeria.reactive;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.BufferingStompDecoder;
+import org.springframework.messaging.simp.stomp.StompConversionException;
+import org.springframework.messaging.simp.stomp.StompDecoder;
+import org.springframework.web.reactive.socket.CloseStatus;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.util.concurrent.Queues;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Sesión de chat del modo reactivo
+ * Cada sesión tiene un sink de salida con un límite de frames pendientes: si el cliente
+ * no consume al ritmo de los mensajes y se alcanza el límite, la sesión se cierra en
+ * lugar de acumular memoria sin límite. La cola crece bajo demanda, por lo que una
+ * sesión inactiva no reserva el buffer completo.
+ * La entrada pasa por un BufferingStompDecoder propio de la sesión, que respeta
+ * content-length y junta los frames que el cliente parte en varios mensajes
+ * (stomp.js los divide a partir de 16 KB)
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class ReactiveChatSession {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChatSession.class);
+
+    // Frames de control del transporte WebSocket de SockJS
+    private static final String SOCKJS_OPEN = "o";
+    private static final String SOCKJS_HEARTBEAT = "h";
+
+    // Tamaño de cada segmento de la cola de salida
+    private static final int QUEUE_LINK_SIZE = 16;
+
+    // Tamaño máximo de un frame entrante (mismo límite por defecto que el modo servlet)
+    private static final int MESSAGE_SIZE_LIMIT = 64 * 1024;
+
+    private final WebSocketSession webSocketSession;
+    private final boolean sockJs;
+    private final ObjectMapper objectMapper;
+    private final Sinks.Many<String> outbound;
+    private final int bufferSize;
+
+    // Frames parciales pendientes de completar; solo lo usa el pipeline de entrada
+    private final BufferingStompDecoder decoder = new BufferingStompDecoder(new StompDecoder(), MESSAGE_SIZE_LIMIT);
+
+    // Frames emitidos que aún no ha consumido el flujo de salida
+    private final AtomicInteger pending = new AtomicInteger();
+
+    // Suscripciones activas: id de suscripción -> destino
+    private final Map<String, String> subscriptions = new ConcurrentHashMap<>();
+
+    private volatile String username;
+
+    /**
+     * Constructor con parámetros
+     *
+     * @param webSocketSession Sesión WebSocket subyacente
+     * @param sockJs true si el cliente usa el framing de SockJS
+     * @param objectMapper Mapper JSON para el framing de SockJS
+     * @param bufferSize Número máximo de frames pendientes de envío
+     */
+    public ReactiveChatSession(WebSocketSession webSocketSession, boolean sockJs,
+                               ObjectMapper objectMapper, int bufferSize) {
+        this.webSocketSession = webSocketSession;
+        this.sockJs = sockJs;
+        this.objectMapper = objectMapper;
+        this.bufferSize = bufferSize;
+        this.outbound = Sinks.many().unicast().onBackpressureBuffer(Queues.<String>unbounded(QUEUE_LINK_SIZE).get());
+    }
+
+    /**
+     * Flujo de mensajes de salida hacia el cliente
+     */
+    public Flux<WebSocketMessage> outbound() {
+        Flux<String> frames = outbound.asFlux().doOnNext(frame -> pending.decrementAndGet());
+        if (sockJs) {
+            frames = Flux.just(SOCKJS_OPEN).concatWith(frames);
+        }
+        return frames.map(webSocketSession::textMessage);
+    }
+
+    /**
+     * Decodifica un mensaje recibido en frames STOMP, eliminando el framing de SockJS si aplica
+     * Los heart-beats del cliente y los frames aún incompletos no producen ningún elemento
+     *
+     * @param text Texto recibido
+     * @return Frames STOMP completos contenidos en el mensaje
+     */
+    public List<Message<byte[]>> decode(String text) {
+        try {
+            return sockJs ? decodeSockJs(text) : decodeStomp(text);
+        } catch (StompConversionException e) {
+            // Error de protocolo: se informa al cliente y se cierra la sesión
+            logger.warn("Frame STOMP inválido en sesión {}: {}", getId(), e.getMessage());
+            send(StompFrame.error(e.getMessage()));
+            complete();
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Message<byte[]>> decodeSockJs(String text) {
+        if (text.isEmpty()) {
+            return Collections.emptyList();
+        }
+        try {
+            String[] messages = text.charAt(0) == '['
+                    ? objectMapper.readValue(text, String[].class)
+                    : new String[] { objectMapper.readValue(text, String.class) };
+            List<Message<byte[]>> frames = new ArrayList<>(messages.length);
+            for (String message : messages) {
+                frames.addAll(decodeStomp(message));
+            }
+            return frames;
+        } catch (JsonProcessingException e) {
+            logger.warn("Mensaje SockJS inválido en sesión {}", getId());
+            return Collections.emptyList();
+        }
+    }
+
+    private List<Message<byte[]>> decodeStomp(String text) {
+        List<Message<byte[]>> messages = decoder.decode(ByteBuffer.wrap(text.getBytes(StandardCharsets.UTF_8)));
+        return messages.stream()
+                .filter(message -> SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) != SimpMessageType.HEARTBEAT)
+                .toList();
+    }
+
+    /**
+     * Encola un frame STOMP para el cliente
+     *
+     * @param stompFrame Frame STOMP ya codificado
+     * @return true si el frame fue aceptado
+     */
+    public boolean send(String stompFrame) {
+        if (!sockJs) {
+            return emit(stompFrame);
+        }
+        try {
+            return emit("a" + objectMapper.writeValueAsString(new String[] { stompFrame }));
+        } catch (JsonProcessingException e) {
+            logger.error("No se pudo codificar el frame para la sesión {}", getId(), e);
+            return false;
+        }
+    }
+
+    /**
+     * Envía un heart-beat de SockJS para mantener viva la conexión
+     */
+    public void heartbeat() {
+        if (sockJs) {
+            emit(SOCKJS_HEARTBEAT);
+        }
+    }
+
+    /**
+     * Las emisiones llegan desde varios hilos (fan-out del broker); el sink unicast
+     * exige que se serialicen
+     */
+    private synchronized boolean emit(String text) {
+        if (pending.incrementAndGet() > bufferSize) {
+            pending.decrementAndGet();
+            logger.warn("Buffer de salida lleno, cerrando sesión lenta: {}", getId());
+            close(CloseStatus.POLICY_VIOLATION);
+            return false;
+        }
+        Sinks.EmitResult result = outbound.tryEmitNext(text);
+        if (result.isFailure()) {
+            pending.decrementAndGet();
+        }
+        return result.isSuccess();
+    }
+
+    /**
+     * Completa el flujo de salida; la conexión se cierra tras enviar lo pendiente
+     */
+    public synchronized void complete() {
+        outbound.tryEmitComplete();
+    }
+
+    /**
+     * Cierra la conexión WebSocket con el estado indicado
+     */
+    public void close(CloseStatus status) {
+        complete();
+        webSocketSession.close(status).subscribe();
+    }
+
+    // Getters y Setters
+
+    public String getId() {
+        return webSocketSession.getId();
+    }
+
+    public Map<String, String> getSubscriptions() {
+        return subscriptions;
+    }
+
+    public String getUsername() {
+        return username;
+    }
+
+    public void setUsername(String username) {
+        this.username = username;
+    }
+
+    @Override
+    public String toString() {
+        return "ReactiveChatSession{" +
+                "id='" + getId() + '\'' +
+                ", username='" + username + '\'' +
+                ", sockJs=" + sockJs +
+                ", subscriptions=" + subscriptions.size() +
+                '}';
+    }
+}
@@ -0,0 +1,127 @@
+package com.sistema.mensajeria.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.reactive.socket.WebSocketHandler;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Manejador WebSocket del modo reactivo
+ * Traduce los frames STOMP de cada conexión en operaciones sobre el broker
+ * y el servicio de chat, con un pipeline de entrada y otro de salida por sesión
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public class ReactiveChatWebSocketHandler implements WebSocketHandler {
+
+    private static final Logger logger = LoggerFactory.getLogger(ReactiveChatWebSocketHandler.class);
+
+    private final ReactiveChatBroker broker;
+    private final ReactiveChatService chatService;
+    private final ObjectMapper objectMapper;
+    private final boolean sockJs;
+    private final int bufferSize;
+
+    /**
+     * Constructor con parámetros
+     *
+     * @param broker Broker reactivo de destinos /topic
+     * @param chatService Servicio con las operaciones /chat.*
+     * @param objectMapper Mapper JSON
+     * @param sockJs true para el transporte WebSocket de SockJS, false para STOMP directo
+     * @param bufferSize Frames pendientes máximos por sesión
+     */
+    public ReactiveChatWebSocketHandler(ReactiveChatBroker broker, ReactiveChatService chatService,
+                                        ObjectMapper objectMapper, boolean sockJs, int bufferSize) {
+        this.broker = broker;
+        this.chatService = chatService;
+        this.objectMapper = objectMapper;
+        this.sockJs = sockJs;
+        this.bufferSize = bufferSize;
+    }
+
+    @Override
+    public Mono<Void> handle(WebSocketSession session) {
+        ReactiveChatSession chatSession = new ReactiveChatSession(session, sockJs, objectMapper, bufferSize);
+        broker.register(chatSession);
+
+        logger.info("Nueva conexión WebSocket establecida. SessionId: {}", chatSession.getId());
+
+        Mono<Void> input = session.receive()
+                .map(WebSocketMessage::getPayloadAsText)
+                .concatMapIterable(chatSession::decode)
+                .doOnNext(frame -> handleFrame(chatSession, frame))
+                .doFinally(signal -> chatSession.complete())
+                .then();
+
+        Mono<Void> output = session.send(chatSession.outbound());
+
+        return Mono.when(input, output)
+                .doFinally(signal -> handleDisconnection(chatSession));
+    }
+
+    /**
+     * Procesa un frame STOMP recibido del cliente
+     */
+    private void handleFrame(ReactiveChatSession session, Message<byte[]> frame) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.wrap(frame);
+        switch (accessor.getCommand()) {
+            case CONNECT, STOMP -> {
+                String version = StompFrame.negotiateVersion(accessor.getAcceptVersion());
+                if (version == null) {
+                    logger.warn("Versión STOMP no soportada en sesión {}: {}",
+                                session.getId(), accessor.getAcceptVersion());
+                    session.send(StompFrame.versionError());
+                    session.complete();
+                    return;
+                }
+                session.send(StompFrame.connected(version));
+            }
+            case SUBSCRIBE -> {
+                if (!broker.subscribe(session, accessor.getSubscriptionId(), accessor.getDestination())) {
+                    session.send(StompFrame.error("Destino de suscripción inválido"));
+                }
+            }
+            case UNSUBSCRIBE -> broker.unsubscribe(session, accessor.getSubscriptionId());
+            case SEND -> chatService.handleSend(session, accessor.getDestination(),
+                                                new String(frame.getPayload(), StandardCharsets.UTF_8));
+            case DISCONNECT -> {
+                sendReceipt(session, accessor);
+                session.complete();
+                return;
+            }
+            default -> logger.warn("Comando STOMP no soportado: {}", accessor.getCommand());
+        }
+        sendReceipt(session, accessor);
+    }
+
+    private void sendReceipt(ReactiveChatSession session, StompHeaderAccessor accessor) {
+        String receipt = accessor.getReceipt();
+        if (receipt != null) {
+            session.send(StompFrame.receipt(receipt));
+        }
+    }
+
+    /**
+     * Limpia la sesión al cerrarse la conexión y notifica la salida del usuario
+     */
+    private void handleDisconnection(ReactiveChatSession session) {
+        if (!broker.unregister(session)) {
+            return;
+        }
+        if (session.getUsername() != null) {
+            logger.info("Usuario desconectado: {} (SessionId: {})", session.getUsername(), session.getId());
+            chatService.handleUserDisconnection(session.getId());
+        } else {
+            logger.info("Sesión desconectada sin usuario registrado. SessionId: {}", session.getId());
+        }
+    }
+}
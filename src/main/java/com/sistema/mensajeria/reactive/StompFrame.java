@@ -0,0 +1,109 @@
+package com.sistema.mensajeria.reactive;
+
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompEncoder;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.util.MimeTypeUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+/**
+ * Frames STOMP que envía el servidor en el modo reactivo
+ * La codificación la hace el StompEncoder de spring-messaging, el mismo que usa el modo
+ * servlet, que se encarga del escapado de cabeceras y de la cabecera content-length.
+ * La decodificación de los frames del cliente está en ReactiveChatSession
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+public final class StompFrame {
+
+    // El encoder no guarda estado por sesión y se puede compartir entre hilos
+    private static final StompEncoder ENCODER = new StompEncoder();
+
+    // Versiones soportadas, en orden de preferencia
+    private static final String[] SUPPORTED_VERSIONS = { "1.2", "1.1", "1.0" };
+
+    private StompFrame() {
+    }
+
+    /**
+     * Negocia la versión del protocolo a partir de la cabecera accept-version del CONNECT
+     *
+     * @param acceptVersions Versiones aceptadas por el cliente (vacío = 1.0)
+     * @return La versión más alta soportada por ambos, o null si no hay ninguna en común
+     */
+    public static String negotiateVersion(Set<String> acceptVersions) {
+        if (acceptVersions.isEmpty()) {
+            return "1.0";
+        }
+        for (String supported : SUPPORTED_VERSIONS) {
+            for (String version : acceptVersions) {
+                if (supported.equals(version.trim())) {
+                    return supported;
+                }
+            }
+        }
+        return null;
+    }
+
+    /**
+     * Frame CONNECTED de respuesta a CONNECT/STOMP
+     *
+     * @param version Versión negociada con negotiateVersion
+     */
+    public static String connected(String version) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.CONNECTED);
+        accessor.setVersion(version);
+        accessor.setHeartbeat(0, 0);
+        return encode(accessor, new byte[0]);
+    }
+
+    /**
+     * Frame MESSAGE para una suscripción concreta
+     *
+     * @param json Payload JSON ya codificado en UTF-8
+     */
+    public static String message(String destination, String subscriptionId, long messageId, byte[] json) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.MESSAGE);
+        accessor.setDestination(destination);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setMessageId(Long.toString(messageId));
+        return encode(accessor, json);
+    }
+
+    /**
+     * Frame RECEIPT de confirmación
+     */
+    public static String receipt(String receiptId) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.RECEIPT);
+        accessor.setReceiptId(receiptId);
+        return encode(accessor, new byte[0]);
+    }
+
+    /**
+     * Frame ERROR con un mensaje descriptivo
+     */
+    public static String error(String message) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+        accessor.setMessage(message);
+        return encode(accessor, new byte[0]);
+    }
+
+    /**
+     * Frame ERROR cuando el cliente no acepta ninguna versión soportada
+     */
+    public static String versionError() {
+        String versions = String.join(",", SUPPORTED_VERSIONS);
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(StompCommand.ERROR);
+        accessor.setNativeHeader(StompHeaderAccessor.STOMP_VERSION_HEADER, versions);
+        accessor.setMessage("Versiones STOMP soportadas " + versions);
+        return encode(accessor, new byte[0]);
+    }
+
+    private static String encode(StompHeaderAccessor accessor, byte[] payload) {
+        return new String(ENCODER.encode(accessor.getMessageHeaders(), payload), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,194 @@
+package com.sistema.mensajeria.service;
+
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.ConnectionNotification;
+import com.sistema.mensajeria.model.User;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+
+/**
+ * Reglas del chat comunes a todos los modos
+ * Validación de mensajes y usuarios, textos de los mensajes del sistema, registro
+ * de usuarios y topics de publicación. Los controladores del modo servlet y el
+ * servicio del modo reactivo solo añaden el transporte
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Service
+public class ChatService {
+
+    private static final Logger logger = LoggerFactory.getLogger(ChatService.class);
+
+    // Topics a los que se suscriben los clientes
+    public static final String PUBLIC_TOPIC = "/topic/public";
+    public static final String USER_COUNT_TOPIC = "/topic/userCount";
+
+    // Longitud máxima del contenido de un mensaje, tras eliminar espacios
+    public static final int MAX_CONTENT_LENGTH = 500;
+
+    static final String JOIN_SUFFIX = " se ha unido al chat";
+    static final String LEAVE_SUFFIX = " ha abandonado el chat";
+
+    @Autowired
+    private UserService userService;
+
+    /**
+     * Valida el contenido de un mensaje de chat
+     *
+     * @param sender Emisor, solo para el registro
+     * @param content Contenido recibido
+     * @return El contenido sin espacios al principio ni al final, o null si está vacío o es demasiado largo
+     */
+    public String validateContent(String sender, String content) {
+        // trim() solo crea un String nuevo si hay espacios que eliminar
+        String trimmed = content == null ? null : content.trim();
+
+        if (trimmed == null || trimmed.isEmpty()) {
+            logger.warn("Intento de enviar mensaje vacío por {}", sender);
+            return null;
+        }
+
+        if (trimmed.length() > MAX_CONTENT_LENGTH) {
+            logger.warn("Mensaje demasiado largo de {}", sender);
+            return null;
+        }
+
+        return trimmed;
+    }
+
+    /**
+     * Valida el nombre con el que un usuario se une al chat
+     *
+     * @param sender Nombre recibido
+     * @return true si no está vacío
+     */
+    public boolean validateSender(String sender) {
+        if (sender == null || sender.trim().isEmpty()) {
+            logger.warn("Intento de conexión sin nombre de usuario");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Prepara un mensaje de chat para publicarlo en PUBLIC_TOPIC
+     *
+     * @param chatMessage Mensaje recibido
+     * @return El mismo mensaje validado, o null si no se debe publicar
+     */
+    public ChatMessage chat(ChatMessage chatMessage) {
+        String content = validateContent(chatMessage.getSender(), chatMessage.getContent());
+        if (content == null) {
+            return null;
+        }
+
+        chatMessage.setContent(content);
+        chatMessage.setTimestamp(LocalDateTime.now());
+        chatMessage.setType(ChatMessage.MessageType.CHAT);
+
+        logger.info("Mensaje recibido de {}: {}",
+                    chatMessage.getSender(),
+                    chatMessage.getContent());
+
+        return chatMessage;
+    }
+
+    /**
+     * Convierte el mensaje de alta en la notificación de que el usuario se ha unido
+     */
+    public ChatMessage join(ChatMessage chatMessage) {
+        chatMessage.setType(ChatMessage.MessageType.JOIN);
+        chatMessage.setTimestamp(LocalDateTime.now());
+        chatMessage.setContent(joinText(chatMessage.getSender()));
+        return chatMessage;
+    }
+
+    /**
+     * Prepara una notificación de "usuario escribiendo"
+     */
+    public ChatMessage typing(ChatMessage chatMessage) {
+        chatMessage.setType(ChatMessage.MessageType.TYPING);
+        chatMessage.setTimestamp(LocalDateTime.now());
+        return chatMessage;
+    }
+
+    /**
+     * Notificación de que un usuario ha abandonado el chat
+     */
+    public ChatMessage leave(String username) {
+        ChatMessage leaveMessage = new ChatMessage();
+        leaveMessage.setType(ChatMessage.MessageType.LEAVE);
+        leaveMessage.setSender(username);
+        leaveMessage.setContent(leaveText(username));
+        leaveMessage.setTimestamp(LocalDateTime.now());
+        return leaveMessage;
+    }
+
+    /**
+     * Actualización del número de usuarios conectados para USER_COUNT_TOPIC
+     */
+    public ConnectionNotification userCount() {
+        return new ConnectionNotification(
+            ConnectionNotification.NotificationType.USER_LIST_UPDATE,
+            null,
+            userService.getUserCount()
+        );
+    }
+
+    /**
+     * Registra al usuario de una sesión que se une al chat
+     *
+     * @param username Nombre ya validado con validateSender
+     * @param sessionId ID de sesión
+     * @return true si se registró, false si la sesión ya tenía un usuario (se conserva el primero)
+     */
+    public boolean registerUser(String username, String sessionId) {
+        boolean added = userService.addUser(new User(username, sessionId));
+
+        logger.info("Nuevo usuario conectado: {} (SessionId: {}, Total usuarios: {})",
+                    username,
+                    sessionId,
+                    userService.getUserCount());
+
+        return added;
+    }
+
+    /**
+     * Elimina al usuario de una sesión cerrada
+     *
+     * @param sessionId ID de sesión
+     * @return El usuario eliminado, o null si la sesión no se había unido al chat
+     */
+    public User unregisterUser(String sessionId) {
+        User disconnectedUser = userService.removeUser(sessionId);
+
+        if (disconnectedUser != null) {
+            logger.info("Usuario desconectado: {} (SessionId: {}, Total usuarios: {})",
+                        disconnectedUser.getUsername(),
+                        sessionId,
+                        userService.getUserCount());
+        }
+
+        return disconnectedUser;
+    }
+
+    /**
+     * Número de usuarios conectados
+     */
+    public int getUserCount() {
+        return userService.getUserCount();
+    }
+
+    static String joinText(String username) {
+        return username + JOIN_SUFFIX;
+    }
+
+    static String leaveText(String username) {
+        return username + LEAVE_SUFFIX;
+    }
+}
@@ -0,0 +1,144 @@
+package com.sistema.mensajeria.service;
+
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.ConnectionNotification;
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.model.LeanConnectionNotification;
+import com.sistema.mensajeria.util.CoarseClock;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Service;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Fábrica de mensajes del modelo ligero
+ * Reutiliza los nombres de emisor, las plantillas de los mensajes del sistema
+ * y la hora del reloj cacheado para reducir las asignaciones por mensaje.
+ * Los nombres se internan una vez por sesión al unirse al chat; los mensajes
+ * posteriores reutilizan el nombre guardado en los atributos de la sesión
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Service
+@ConditionalOnProperty(name = "mensajeria.model.lean", havingValue = "true")
+public class LeanMessageFactory {
+
+    private static final String USER_COUNT_PREFIX = "Usuarios conectados: ";
+
+    // Límite de nombres internados para no retener memoria sin control
+    private static final int MAX_INTERNED_SENDERS = 10_000;
+
+    // Conteos de usuarios con el texto de notificación ya construido
+    private static final int PREBUILT_USER_COUNTS = 1024;
+
+    @Autowired
+    private CoarseClock clock;
+
+    // Instancia canónica de cada nombre de emisor y número de sesiones que lo usan
+    private final Map<String, Sender> senders = new ConcurrentHashMap<>();
+
+    // Plantillas de "Usuarios conectados: N" construidas al iniciar
+    private final String[] userCountMessages = new String[PREBUILT_USER_COUNTS];
+
+    /**
+     * Constructor por defecto
+     */
+    public LeanMessageFactory() {
+        for (int i = 0; i < PREBUILT_USER_COUNTS; i++) {
+            userCountMessages[i] = USER_COUNT_PREFIX + i;
+        }
+    }
+
+    /**
+     * Nombre canónico y número de sesiones que lo tienen registrado
+     */
+    private static final class Sender {
+        private final String name;
+        private int sessions;
+
+        Sender(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * Devuelve la instancia canónica del nombre de emisor y registra una sesión más que lo usa
+     * Se llama una vez por sesión al unirse al chat; cada llamada debe liberarse con releaseSender
+     *
+     * @param sender Nombre recibido
+     * @return Nombre internado, o el recibido si se alcanzó el límite
+     */
+    public String internSender(String sender) {
+        if (sender == null) {
+            return null;
+        }
+        Sender interned = senders.compute(sender, (name, current) -> {
+            if (current == null) {
+                if (senders.size() >= MAX_INTERNED_SENDERS) {
+                    return null;
+                }
+                current = new Sender(name);
+            }
+            current.sessions++;
+            return current;
+        });
+        return interned != null ? interned.name : sender;
+    }
+
+    /**
+     * Mensaje de chat normal
+     */
+    public LeanChatMessage chat(String sender, String content) {
+        return new LeanChatMessage(ChatMessage.MessageType.CHAT, content, sender, clock.millis());
+    }
+
+    /**
+     * Notificación de usuario que se une al chat
+     */
+    public LeanChatMessage join(String sender) {
+        return new LeanChatMessage(ChatMessage.MessageType.JOIN, ChatService.joinText(sender), sender, clock.millis());
+    }
+
+    /**
+     * Notificación de usuario que abandona el chat
+     */
+    public LeanChatMessage leave(String sender) {
+        return new LeanChatMessage(ChatMessage.MessageType.LEAVE, ChatService.leaveText(sender), sender, clock.millis());
+    }
+
+    /**
+     * Notificación de "usuario escribiendo"
+     */
+    public LeanChatMessage typing(String sender) {
+        return new LeanChatMessage(ChatMessage.MessageType.TYPING, null, sender, clock.millis());
+    }
+
+    /**
+     * Actualización del número de usuarios conectados
+     */
+    public LeanConnectionNotification userCount(int totalUsers) {
+        String message = totalUsers >= 0 && totalUsers < PREBUILT_USER_COUNTS
+                ? userCountMessages[totalUsers]
+                : USER_COUNT_PREFIX + totalUsers;
+        return new LeanConnectionNotification(ConnectionNotification.NotificationType.USER_LIST_UPDATE,
+                null, totalUsers, clock.millis(), message);
+    }
+
+    /**
+     * Libera el nombre internado de una sesión que abandona el chat
+     * El nombre se descarta cuando ya no lo usa ninguna sesión (p. ej. otra pestaña del mismo usuario).
+     * Solo cuenta si es la instancia devuelta por internSender: un nombre que no se internó
+     * por el límite no descuenta la entrada que otra sesión haya creado después
+     *
+     * @param sender Nombre devuelto por internSender
+     */
+    public void releaseSender(String sender) {
+        if (sender != null) {
+            senders.computeIfPresent(sender, (name, current) ->
+                    current.name != sender || --current.sessions > 0 ? current : null);
+        }
+    }
+}
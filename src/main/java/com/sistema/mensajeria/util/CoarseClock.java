@@ -0,0 +1,69 @@
+package com.sistema.mensajeria.util;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reloj de baja resolución para el modelo ligero de mensajes
+ * Un único hilo actualiza la hora cada pocos milisegundos y los mensajes
+ * leen el valor cacheado sin consultar el reloj del sistema
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+@Component
+@ConditionalOnProperty(name = "mensajeria.model.lean", havingValue = "true")
+public class CoarseClock {
+
+    private final long resolutionMillis;
+
+    private volatile long currentMillis = System.currentTimeMillis();
+
+    private ScheduledExecutorService ticker;
+
+    /**
+     * Constructor con parámetros
+     *
+     * @param resolutionMillis Intervalo de actualización en milisegundos
+     */
+    public CoarseClock(@Value("${mensajeria.model.clock-resolution-ms:10}") long resolutionMillis) {
+        this.resolutionMillis = resolutionMillis;
+    }
+
+    /**
+     * Inicia el hilo que actualiza la hora cacheada
+     */
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "coarse-clock");
+            thread.setDaemon(true);
+            return thread;
+        });
+        ticker.scheduleAtFixedRate(() -> currentMillis = System.currentTimeMillis(),
+                resolutionMillis, resolutionMillis, TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+    }
+
+    /**
+     * Obtiene la hora cacheada
+     *
+     * @return Milisegundos desde epoch, con la resolución configurada
+     */
+    public long millis() {
+        return currentMillis;
+    }
+}
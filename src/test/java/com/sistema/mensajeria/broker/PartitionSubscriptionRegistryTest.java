@@ -0,0 +1,142 @@
+package com.sistema.mensajeria.broker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del registro de suscripciones de una partición
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class PartitionSubscriptionRegistryTest {
+
+    private static final String PUBLIC = "/topic/public";
+    private static final String USER_COUNT = "/topic/userCount";
+
+    private final PartitionSubscriptionRegistry registry = new PartitionSubscriptionRegistry(16);
+
+    @Test
+    @DisplayName("Encuentra los suscriptores de cada destino")
+    void findsSubscribers() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        registry.addSubscription("s-2", "sub-0", PUBLIC);
+        registry.addSubscription("s-1", "sub-1", USER_COUNT);
+
+        assertThat(subscribers(PUBLIC)).containsExactlyInAnyOrder("s-1/sub-0", "s-2/sub-0");
+        assertThat(subscribers(USER_COUNT)).containsExactly("s-1/sub-1");
+        assertThat(registry.findSubscribers("/topic/otro")).isNull();
+    }
+
+    @Test
+    @DisplayName("UNSUBSCRIBE elimina solo esa suscripción y libera el destino vacío")
+    void unsubscribe() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        registry.addSubscription("s-2", "sub-0", PUBLIC);
+        registry.addSubscription("s-1", "sub-1", USER_COUNT);
+
+        assertThat(registry.removeSubscription("s-1", "sub-0")).isTrue();
+        assertThat(subscribers(PUBLIC)).containsExactly("s-2/sub-0");
+        assertThat(subscribers(USER_COUNT)).containsExactly("s-1/sub-1");
+
+        assertThat(registry.removeSubscription("s-1", "sub-1")).isTrue();
+        assertThat(registry.findSubscribers(USER_COUNT)).isNull();
+
+        // Una segunda baja de la misma suscripción no hace nada
+        assertThat(registry.removeSubscription("s-1", "sub-1")).isFalse();
+        assertThat(subscribers(PUBLIC)).containsExactly("s-2/sub-0");
+    }
+
+    @Test
+    @DisplayName("UNSUBSCRIBE de una suscripción de otra partición devuelve false")
+    void unsubscribeUnknown() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+
+        assertThat(registry.removeSubscription("s-1", "sub-9")).isFalse();
+        assertThat(registry.removeSubscription("s-9", "sub-0")).isFalse();
+        assertThat(subscribers(PUBLIC)).containsExactly("s-1/sub-0");
+    }
+
+    @Test
+    @DisplayName("DISCONNECT elimina todas las suscripciones de la sesión")
+    void removeSession() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        registry.addSubscription("s-1", "sub-1", USER_COUNT);
+        registry.addSubscription("s-1", "sub-2", "/topic/sala-1");
+        registry.addSubscription("s-2", "sub-0", PUBLIC);
+
+        registry.removeSession("s-1");
+
+        assertThat(subscribers(PUBLIC)).containsExactly("s-2/sub-0");
+        assertThat(registry.findSubscribers(USER_COUNT)).isNull();
+        assertThat(registry.findSubscribers("/topic/sala-1")).isNull();
+        assertThat(registry.removeSubscription("s-1", "sub-0")).isFalse();
+
+        // Sesión desconocida o ya eliminada
+        registry.removeSession("s-1");
+        registry.removeSession("s-9");
+        assertThat(subscribers(PUBLIC)).containsExactly("s-2/sub-0");
+    }
+
+    @Test
+    @DisplayName("Una sesión puede volver a suscribirse tras desconectarse")
+    void resubscribeAfterRemoveSession() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        registry.removeSession("s-1");
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+
+        assertThat(subscribers(PUBLIC)).containsExactly("s-1/sub-0");
+        assertThat(registry.removeSubscription("s-1", "sub-0")).isTrue();
+        assertThat(registry.findSubscribers(PUBLIC)).isNull();
+    }
+
+    @Test
+    @DisplayName("Un SUBSCRIBE repetido con el mismo id sustituye la suscripción anterior")
+    void duplicateSubscribeReplaces() {
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        registry.addSubscription("s-1", "sub-0", PUBLIC);
+        assertThat(subscribers(PUBLIC)).containsExactly("s-1/sub-0");
+
+        registry.addSubscription("s-1", "sub-0", USER_COUNT);
+        assertThat(registry.findSubscribers(PUBLIC)).isNull();
+        assertThat(subscribers(USER_COUNT)).containsExactly("s-1/sub-0");
+
+        assertThat(registry.removeSubscription("s-1", "sub-0")).isTrue();
+        assertThat(registry.findSubscribers(USER_COUNT)).isNull();
+    }
+
+    @Test
+    @DisplayName("Las desconexiones en un destino con muchos suscriptores conservan al resto")
+    void removeSessionsFromLargeDestination() {
+        int sessions = 1_000;
+        for (int s = 0; s < sessions; s++) {
+            registry.addSubscription("s-" + s, "sub-0", PUBLIC);
+            registry.addSubscription("s-" + s, "sub-1", USER_COUNT);
+        }
+
+        for (int s = 0; s < sessions; s += 2) {
+            registry.removeSession("s-" + s);
+        }
+
+        assertThat(subscribers(PUBLIC)).hasSize(sessions / 2).allMatch(pair -> pair.endsWith("/sub-0"))
+                .noneMatch(pair -> Integer.parseInt(pair.substring(2, pair.indexOf('/'))) % 2 == 0);
+        assertThat(subscribers(USER_COUNT)).hasSize(sessions / 2);
+        assertThat(registry.removeSubscription("s-1", "sub-0")).isTrue();
+        assertThat(registry.removeSubscription("s-2", "sub-0")).isFalse();
+        assertThat(subscribers(PUBLIC)).hasSize(sessions / 2 - 1);
+    }
+
+    private List<String> subscribers(String destination) {
+        SubscriberList list = registry.findSubscribers(destination);
+        List<String> pairs = new ArrayList<>();
+        for (int i = 0; list != null && i < list.size(); i++) {
+            pairs.add(list.sessionId(i) + "/" + list.subscriptionId(i));
+        }
+        return pairs;
+    }
+}
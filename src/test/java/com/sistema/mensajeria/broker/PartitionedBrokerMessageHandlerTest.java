@@ -0,0 +1,275 @@
+package com.sistema.mensajeria.broker;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del broker particionado: entrega, orden por sesión, colas llenas y confirmaciones
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class PartitionedBrokerMessageHandlerTest {
+
+    private static final String PUBLIC = "/topic/public";
+
+    private final ExecutorSubscribableChannel inbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel outbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel broker = new ExecutorSubscribableChannel();
+
+    // Mensajes recibidos por los clientes, en orden de envío
+    private final List<Message<?>> sent = new CopyOnWriteArrayList<>();
+
+    // Mientras no se abra, los MESSAGE quedan bloqueados en el hilo de salida (cliente lento)
+    private volatile CountDownLatch slowClient = new CountDownLatch(0);
+
+    private PartitionedBrokerMessageHandler handler;
+
+    PartitionedBrokerMessageHandlerTest() {
+        outbound.subscribe(message -> {
+            if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE) {
+                try {
+                    slowClient.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            }
+            sent.add(message);
+        });
+    }
+
+    @AfterEach
+    void stop() {
+        slowClient.countDown();
+        if (handler != null) {
+            handler.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Entrega cada mensaje a todos los suscriptores del destino")
+    void deliversToSubscribers() {
+        start(2, 0, 10_000, 1_000);
+        subscribe("s-1", "sub-0", PUBLIC);
+        subscribe("s-2", "sub-0", PUBLIC);
+        subscribe("s-2", "sub-1", "/topic/otro");
+
+        publish(PUBLIC, "hola");
+
+        awaitMessages(2);
+        assertThat(messages()).extracting(m -> SimpMessageHeaderAccessor.getSessionId(m.getHeaders()))
+                .containsExactlyInAnyOrder("s-1", "s-2");
+        assertThat(messages()).allSatisfy(m -> {
+            assertThat(SimpMessageHeaderAccessor.getDestination(m.getHeaders())).isEqualTo(PUBLIC);
+            assertThat(SimpMessageHeaderAccessor.getSubscriptionId(m.getHeaders())).isEqualTo("sub-0");
+            assertThat(payload(m)).isEqualTo("hola");
+        });
+    }
+
+    @Test
+    @DisplayName("Una difusión con más suscriptores que la cola de salida no pierde entregas")
+    void fanOutLargerThanOutboundQueue() {
+        start(1, 1, 1, 1_000);
+        for (int s = 0; s < 500; s++) {
+            subscribe("s-" + s, "sub-0", PUBLIC);
+        }
+
+        publish(PUBLIC, "a todos");
+
+        awaitMessages(500);
+        assertThat(messages()).hasSize(500);
+    }
+
+    @Test
+    @DisplayName("Los mensajes de una sesión llegan en orden con varios hilos de salida")
+    void preservesOrderPerSession() {
+        start(2, 4, 10_000, 10_000);
+        for (int s = 0; s < 8; s++) {
+            subscribe("s-" + s, "sub-0", PUBLIC);
+        }
+
+        int count = 2_000;
+        for (int i = 0; i < count; i++) {
+            publish(PUBLIC, Integer.toString(i));
+        }
+
+        awaitMessages(count * 8);
+        for (int s = 0; s < 8; s++) {
+            String sessionId = "s-" + s;
+            assertThat(messages().stream()
+                    .filter(m -> sessionId.equals(SimpMessageHeaderAccessor.getSessionId(m.getHeaders())))
+                    .map(m -> Integer.parseInt(payload(m))))
+                    .as("orden de la sesión %s", sessionId)
+                    .isSorted()
+                    .hasSize(count);
+        }
+    }
+
+    @Test
+    @DisplayName("Con las colas llenas descarta los MESSAGE nuevos y se recupera después")
+    void dropsMessagesWhenQueuesAreFull() {
+        start(1, 1, 1, 1);
+        subscribe("s-1", "sub-0", PUBLIC);
+        slowClient = new CountDownLatch(1);
+
+        // Como mucho caben 4: uno escribiéndose, uno en la cola de salida,
+        // uno en el bucle de eventos esperando sitio y uno en la cola de la partición
+        for (int i = 0; i < 20; i++) {
+            publish(PUBLIC, Integer.toString(i));
+        }
+        slowClient.countDown();
+
+        awaitCondition(() -> messages().size() >= 1);
+        sleep(200);
+        int delivered = messages().size();
+        assertThat(delivered).isBetween(1, 4);
+
+        publish(PUBLIC, "después");
+        awaitMessages(delivered + 1);
+        assertThat(payload(messages().get(delivered))).isEqualTo("después");
+    }
+
+    @Test
+    @DisplayName("CONNECT_ACK y DISCONNECT_ACK no esperan a las entregas pendientes")
+    void acknowledgementsBypassOutboundQueues() {
+        start(1, 1, 1, 10);
+        subscribe("s-lento", "sub-0", PUBLIC);
+        slowClient = new CountDownLatch(1);
+        publish(PUBLIC, "bloquea el hilo de salida");
+        publish(PUBLIC, "llena la cola de salida");
+
+        for (int s = 0; s < 300; s++) {
+            send(SimpMessageType.CONNECT, "s-" + s, null, null);
+        }
+        assertThat(acknowledgements(SimpMessageType.CONNECT_ACK)).isEqualTo(300);
+
+        for (int s = 0; s < 300; s++) {
+            send(SimpMessageType.DISCONNECT, "s-" + s, null, null);
+        }
+        assertThat(acknowledgements(SimpMessageType.DISCONNECT_ACK)).isEqualTo(300);
+    }
+
+    @Test
+    @DisplayName("Tras DISCONNECT la sesión deja de recibir mensajes")
+    void disconnectRemovesSubscriptions() {
+        start(2, 0, 10_000, 1_000);
+        send(SimpMessageType.CONNECT, "s-1", null, null);
+        subscribe("s-1", "sub-0", PUBLIC);
+        subscribe("s-2", "sub-0", PUBLIC);
+        send(SimpMessageType.DISCONNECT, "s-1", null, null);
+
+        publish(PUBLIC, "hola");
+
+        awaitMessages(1);
+        sleep(100);
+        assertThat(messages()).extracting(m -> SimpMessageHeaderAccessor.getSessionId(m.getHeaders()))
+                .containsExactly("s-2");
+    }
+
+    @Test
+    @DisplayName("Un SUBSCRIBE repetido no duplica las entregas")
+    void duplicateSubscribeDeliversOnce() {
+        start(4, 0, 10_000, 1_000);
+        subscribe("s-1", "sub-0", PUBLIC);
+        subscribe("s-1", "sub-0", PUBLIC);
+
+        publish(PUBLIC, "una vez");
+
+        awaitMessages(1);
+        sleep(100);
+        assertThat(messages()).hasSize(1);
+    }
+
+    @Test
+    @DisplayName("Ignora los MESSAGE sin destino")
+    void ignoresMessageWithoutDestination() {
+        start(1, 0, 10_000, 1_000);
+        subscribe("s-1", "sub-0", PUBLIC);
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        handler.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        publish(PUBLIC, "con destino");
+
+        awaitMessages(1);
+        assertThat(payload(messages().get(0))).isEqualTo("con destino");
+    }
+
+    private void start(int partitions, int outboundThreads, int outboundQueueCapacity, int queueCapacity) {
+        handler = new PartitionedBrokerMessageHandler(inbound, outbound, broker, List.of("/topic"), partitions);
+        handler.setOutboundThreads(outboundThreads);
+        handler.setOutboundQueueCapacity(outboundQueueCapacity);
+        handler.setQueueCapacity(queueCapacity);
+        handler.setPublishTimeoutMillis(outboundQueueCapacity == 1 ? 10 : 10_000);
+        handler.start();
+    }
+
+    private void subscribe(String sessionId, String subscriptionId, String destination) {
+        send(SimpMessageType.SUBSCRIBE, sessionId, subscriptionId, destination);
+    }
+
+    private void publish(String destination, String payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setDestination(destination);
+        handler.handleMessage(MessageBuilder.createMessage(
+                payload.getBytes(StandardCharsets.UTF_8), accessor.getMessageHeaders()));
+    }
+
+    private void send(SimpMessageType type, String sessionId, String subscriptionId, String destination) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(type);
+        accessor.setSessionId(sessionId);
+        accessor.setSubscriptionId(subscriptionId);
+        accessor.setDestination(destination);
+        handler.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+    }
+
+    private List<Message<?>> messages() {
+        return sent.stream()
+                .filter(m -> SimpMessageHeaderAccessor.getMessageType(m.getHeaders()) == SimpMessageType.MESSAGE)
+                .toList();
+    }
+
+    private long acknowledgements(SimpMessageType type) {
+        return sent.stream()
+                .filter(m -> SimpMessageHeaderAccessor.getMessageType(m.getHeaders()) == type)
+                .count();
+    }
+
+    private static String payload(Message<?> message) {
+        return new String((byte[]) message.getPayload(), StandardCharsets.UTF_8);
+    }
+
+    private void awaitMessages(int count) {
+        awaitCondition(() -> messages().size() >= count);
+        assertThat(messages()).hasSizeGreaterThanOrEqualTo(count);
+    }
+
+    private static void awaitCondition(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean() && System.nanoTime() < deadline) {
+            sleep(5);
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
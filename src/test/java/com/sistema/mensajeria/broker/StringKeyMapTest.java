@@ -0,0 +1,174 @@
+package com.sistema.mensajeria.broker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del mapa de direccionamiento abierto del broker particionado
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class StringKeyMapTest {
+
+    // Con 8 claves esperadas la tabla tiene 16 casillas y no se redimensiona hasta la novena
+    private static final int EXPECTED_SIZE = 8;
+    private static final int MASK = 15;
+
+    @Test
+    @DisplayName("Inserta, reemplaza, consulta y elimina claves")
+    void putGetRemove() {
+        StringKeyMap<Integer> map = new StringKeyMap<>();
+
+        assertThat(map.put("/topic/public", 1)).isNull();
+        assertThat(map.put("/topic/userCount", 2)).isNull();
+        assertThat(map.put("/topic/public", 3)).isEqualTo(1);
+
+        assertThat(map.size()).isEqualTo(2);
+        assertThat(map.get("/topic/public")).isEqualTo(3);
+        assertThat(map.get("/topic/otro")).isNull();
+
+        assertThat(map.remove("/topic/public")).isEqualTo(3);
+        assertThat(map.remove("/topic/public")).isNull();
+        assertThat(map.size()).isEqualTo(1);
+        assertThat(map.get("/topic/public")).isNull();
+        assertThat(map.get("/topic/userCount")).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Distingue claves distintas con el mismo hashCode")
+    void keysWithSameHashCode() {
+        // "Aa" y "BB" tienen el mismo hashCode, y también sus concatenaciones
+        List<String> keys = List.of("AaAa", "AaBB", "BBAa", "BBBB");
+        StringKeyMap<String> map = new StringKeyMap<>();
+        for (String key : keys) {
+            map.put(key, key);
+        }
+
+        for (String key : keys) {
+            assertThat(map.get(key)).isEqualTo(key);
+        }
+        assertThat(map.remove("AaBB")).isEqualTo("AaBB");
+        assertThat(map.get("AaBB")).isNull();
+        assertThat(map.get("AaAa")).isEqualTo("AaAa");
+        assertThat(map.get("BBAa")).isEqualTo("BBAa");
+        assertThat(map.get("BBBB")).isEqualTo("BBBB");
+    }
+
+    @Test
+    @DisplayName("Encuentra las claves de una secuencia de sondeo tras borrar su cabeza")
+    void deleteThenLookupAlongProbeChain() {
+        // Tres claves con la misma posición ideal y una cuarta que cae en medio de su secuencia
+        List<String> sameHome = keysWithHome(3, 3);
+        String next = keysWithHome(4, 1).get(0);
+        StringKeyMap<String> map = new StringKeyMap<>(EXPECTED_SIZE);
+        for (String key : sameHome) {
+            map.put(key, key);
+        }
+        map.put(next, next);
+
+        assertThat(map.remove(sameHome.get(0))).isEqualTo(sameHome.get(0));
+        assertThat(map.get(sameHome.get(0))).isNull();
+        assertThat(map.get(sameHome.get(1))).isEqualTo(sameHome.get(1));
+        assertThat(map.get(sameHome.get(2))).isEqualTo(sameHome.get(2));
+        assertThat(map.get(next)).isEqualTo(next);
+
+        assertThat(map.remove(sameHome.get(1))).isEqualTo(sameHome.get(1));
+        assertThat(map.get(sameHome.get(2))).isEqualTo(sameHome.get(2));
+        assertThat(map.get(next)).isEqualTo(next);
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Mantiene las secuencias de sondeo que dan la vuelta al final de la tabla")
+    void probeChainWrapsAround() {
+        // Claves con posición ideal en la última casilla: ocupan 15, 0 y 1
+        List<String> lastSlot = keysWithHome(MASK, 3);
+        String first = keysWithHome(0, 1).get(0);
+        StringKeyMap<String> map = new StringKeyMap<>(EXPECTED_SIZE);
+        for (String key : lastSlot) {
+            map.put(key, key);
+        }
+        map.put(first, first);
+
+        for (String key : lastSlot) {
+            assertThat(map.get(key)).isEqualTo(key);
+        }
+        assertThat(map.get(first)).isEqualTo(first);
+
+        // Al borrar la cabeza las siguientes vuelven atrás cruzando el final de la tabla
+        assertThat(map.remove(lastSlot.get(0))).isEqualTo(lastSlot.get(0));
+        assertThat(map.get(lastSlot.get(1))).isEqualTo(lastSlot.get(1));
+        assertThat(map.get(lastSlot.get(2))).isEqualTo(lastSlot.get(2));
+        assertThat(map.get(first)).isEqualTo(first);
+
+        assertThat(map.remove(first)).isEqualTo(first);
+        assertThat(map.get(lastSlot.get(1))).isEqualTo(lastSlot.get(1));
+        assertThat(map.get(lastSlot.get(2))).isEqualTo(lastSlot.get(2));
+        assertThat(map.size()).isEqualTo(2);
+    }
+
+    @Test
+    @DisplayName("Conserva todas las claves al redimensionar la tabla")
+    void resizeKeepsEntries() {
+        StringKeyMap<Integer> map = new StringKeyMap<>();
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(map.put("/topic/sala-" + i, i)).isNull();
+        }
+
+        assertThat(map.size()).isEqualTo(1_000);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(map.get("/topic/sala-" + i)).isEqualTo(i);
+        }
+        for (int i = 0; i < 1_000; i += 2) {
+            assertThat(map.remove("/topic/sala-" + i)).isEqualTo(i);
+        }
+        assertThat(map.size()).isEqualTo(500);
+        for (int i = 0; i < 1_000; i++) {
+            assertThat(map.get("/topic/sala-" + i)).isEqualTo(i % 2 == 0 ? null : i);
+        }
+    }
+
+    @Test
+    @DisplayName("Se comporta como HashMap ante operaciones aleatorias")
+    void matchesHashMap() {
+        Random random = new Random(42);
+        StringKeyMap<Integer> map = new StringKeyMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+
+        for (int i = 0; i < 20_000; i++) {
+            String key = "k" + random.nextInt(200);
+            if (random.nextInt(3) == 0) {
+                assertThat(map.remove(key)).isEqualTo(expected.remove(key));
+            } else {
+                assertThat(map.put(key, i)).isEqualTo(expected.put(key, i));
+            }
+            assertThat(map.size()).isEqualTo(expected.size());
+        }
+        for (int i = 0; i < 200; i++) {
+            assertThat(map.get("k" + i)).isEqualTo(expected.get("k" + i));
+        }
+    }
+
+    /**
+     * Genera claves distintas cuya posición ideal en una tabla de 16 casillas es la indicada
+     */
+    private static List<String> keysWithHome(int slot, int count) {
+        List<String> keys = new ArrayList<>();
+        for (int i = 0; keys.size() < count; i++) {
+            String key = "/topic/" + slot + "-" + i;
+            if ((StringKeyMap.hash(key) & MASK) == slot) {
+                keys.add(key);
+            }
+        }
+        return keys;
+    }
+}
@@ -0,0 +1,102 @@
+package com.sistema.mensajeria.broker;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la lista de suscriptores de un destino
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class SubscriberListTest {
+
+    @Test
+    @DisplayName("Crece por encima de la capacidad inicial")
+    void growsBeyondInitialCapacity() {
+        SubscriberList list = new SubscriberList();
+        for (int i = 0; i < 10; i++) {
+            list.add("s-" + i, "sub-" + i);
+        }
+
+        assertThat(list.size()).isEqualTo(10);
+        for (int i = 0; i < 10; i++) {
+            assertThat(list.sessionId(i)).isEqualTo("s-" + i);
+            assertThat(list.subscriptionId(i)).isEqualTo("sub-" + i);
+        }
+    }
+
+    @Test
+    @DisplayName("Elimina solo el par sesión-suscripción indicado")
+    void removesMatchingPair() {
+        SubscriberList list = new SubscriberList();
+        list.add("s-1", "sub-0");
+        list.add("s-2", "sub-0");
+        list.add("s-1", "sub-1");
+
+        assertThat(list.remove("s-1", "sub-2")).isFalse();
+        assertThat(list.remove("s-3", "sub-0")).isFalse();
+        assertThat(list.remove("s-1", "sub-0")).isTrue();
+
+        assertThat(list.size()).isEqualTo(2);
+        assertThat(pairs(list)).containsExactlyInAnyOrder("s-2/sub-0", "s-1/sub-1");
+    }
+
+    @Test
+    @DisplayName("Queda vacía al eliminar todas las suscripciones")
+    void becomesEmpty() {
+        SubscriberList list = new SubscriberList();
+        assertThat(list.isEmpty()).isTrue();
+
+        list.add("s-1", "sub-0");
+        list.add("s-2", "sub-0");
+        assertThat(list.remove("s-2", "sub-0")).isTrue();
+        assertThat(list.remove("s-1", "sub-0")).isTrue();
+
+        assertThat(list.isEmpty()).isTrue();
+        assertThat(list.remove("s-1", "sub-0")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Las listas grandes eliminan por índice y siguen coherentes tras mover elementos")
+    void indexedRemovals() {
+        int count = SubscriberList.INDEX_THRESHOLD * 4;
+        SubscriberList list = new SubscriberList();
+        List<String> expected = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            list.add("s-" + i, "sub-" + (i % 3));
+            expected.add("s-" + i + "/sub-" + (i % 3));
+        }
+
+        // Elimina desde el principio para que cada baja mueva el último elemento al hueco
+        for (int i = 0; i < count; i += 2) {
+            assertThat(list.remove("s-" + i, "sub-" + (i % 3))).isTrue();
+            expected.remove("s-" + i + "/sub-" + (i % 3));
+        }
+        assertThat(list.remove("s-0", "sub-0")).isFalse();
+        assertThat(list.remove("s-1", "sub-0")).isFalse();
+        assertThat(pairs(list)).containsExactlyInAnyOrderElementsOf(expected);
+
+        for (int i = 1; i < count; i += 2) {
+            assertThat(list.remove("s-" + i, "sub-" + (i % 3))).isTrue();
+        }
+        assertThat(list.isEmpty()).isTrue();
+
+        list.add("s-0", "sub-0");
+        assertThat(pairs(list)).containsExactly("s-0/sub-0");
+        assertThat(list.remove("s-0", "sub-0")).isTrue();
+    }
+
+    private static List<String> pairs(SubscriberList list) {
+        List<String> pairs = new ArrayList<>();
+        for (int i = 0; i < list.size(); i++) {
+            pairs.add(list.sessionId(i) + "/" + list.subscriptionId(i));
+        }
+        return pairs;
+    }
+}
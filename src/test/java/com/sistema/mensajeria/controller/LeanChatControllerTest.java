@@ -0,0 +1,97 @@
+package com.sistema.mensajeria.controller;
+
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.service.ChatService;
+import com.sistema.mensajeria.service.LeanMessageFactory;
+import com.sistema.mensajeria.service.UserService;
+import com.sistema.mensajeria.util.CoarseClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.HashMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Pruebas del controlador del modelo ligero: registro de usuarios y nombres internados
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class LeanChatControllerTest {
+
+    private final UserService userService = new UserService();
+    private final ChatService chatService = new ChatService();
+    private final LeanMessageFactory messageFactory = new LeanMessageFactory();
+    private final LeanChatController controller = new LeanChatController();
+
+    LeanChatControllerTest() {
+        ReflectionTestUtils.setField(messageFactory, "clock", new CoarseClock(10));
+        ReflectionTestUtils.setField(chatService, "userService", userService);
+        ReflectionTestUtils.setField(controller, "chatService", chatService);
+        ReflectionTestUtils.setField(controller, "messageFactory", messageFactory);
+        ReflectionTestUtils.setField(controller, "messagingTemplate", mock(SimpMessagingTemplate.class));
+    }
+
+    @Test
+    @DisplayName("Los mensajes de la sesión reutilizan el nombre internado al unirse")
+    void messagesReuseInternedName() {
+        SimpMessageHeaderAccessor session = session("s-1");
+        LeanChatMessage join = controller.addUser(message(new String("alice")), session);
+
+        LeanChatMessage chat = controller.sendMessage(
+                new LeanChatMessage(ChatMessage.MessageType.CHAT, " hola ", new String("alice"), 0), session);
+
+        assertThat(chat.content()).isEqualTo("hola");
+        assertThat(chat.sender()).isSameAs(join.sender());
+        assertThat(controller.userTyping(message(new String("alice")), session).sender()).isSameAs(join.sender());
+    }
+
+    @Test
+    @DisplayName("Unirse de nuevo con otro nombre no desajusta los nombres internados de otras pestañas")
+    void rejoinWithDifferentName() {
+        String alice = controller.addUser(message(new String("alice")), session("s-1")).sender();
+        SimpMessageHeaderAccessor secondTab = session("s-2");
+        controller.addUser(message(new String("alice")), secondTab);
+
+        // La segunda pestaña se une otra vez con otro nombre y después se desconecta
+        controller.addUser(message(new String("bob")), secondTab);
+        controller.handleUserDisconnection("s-2");
+
+        // La primera pestaña sigue usando el nombre internado
+        assertThat(messageFactory.internSender(new String("alice"))).isSameAs(alice);
+
+        // "bob" no quedó retenido por la sesión desconectada
+        String bob = new String("bob");
+        assertThat(messageFactory.internSender(bob)).isSameAs(bob);
+    }
+
+    @Test
+    @DisplayName("Desconectar la última sesión libera el nombre")
+    void disconnectReleasesName() {
+        String alice = controller.addUser(message(new String("alice")), session("s-1")).sender();
+
+        controller.handleUserDisconnection("s-1");
+        controller.handleUserDisconnection("s-1");
+
+        assertThat(userService.getUserCount()).isZero();
+        assertThat(messageFactory.internSender(new String("alice"))).isNotSameAs(alice);
+    }
+
+    private static LeanChatMessage message(String sender) {
+        return new LeanChatMessage(ChatMessage.MessageType.JOIN, null, sender, 0);
+    }
+
+    private static SimpMessageHeaderAccessor session(String sessionId) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setSessionId(sessionId);
+        accessor.setSessionAttributes(new HashMap<>());
+        return accessor;
+    }
+}
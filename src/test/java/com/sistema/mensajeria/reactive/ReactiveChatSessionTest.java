@@ -0,0 +1,127 @@
+package com.sistema.mensajeria.reactive;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.web.reactive.socket.WebSocketMessage;
+import org.springframework.web.reactive.socket.WebSocketSession;
+
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Pruebas de la decodificación de frames STOMP de una sesión reactiva
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class ReactiveChatSessionTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    @DisplayName("Decodifica varios frames contenidos en un mismo mensaje")
+    void decodesMultipleFrames() {
+        List<Message<byte[]>> frames = session(false).decode(
+                "SUBSCRIBE\nid:sub-0\ndestination:/topic/public\n\n\0"
+                + "SEND\ndestination:/app/chat.sendMessage\n\n{\"content\":\"hola\"}\0");
+
+        assertThat(frames).hasSize(2);
+        StompHeaderAccessor subscribe = StompHeaderAccessor.wrap(frames.get(0));
+        assertThat(subscribe.getCommand()).isEqualTo(StompCommand.SUBSCRIBE);
+        assertThat(subscribe.getSubscriptionId()).isEqualTo("sub-0");
+        assertThat(subscribe.getDestination()).isEqualTo("/topic/public");
+        assertThat(StompHeaderAccessor.wrap(frames.get(1)).getCommand()).isEqualTo(StompCommand.SEND);
+        assertThat(body(frames.get(1))).isEqualTo("{\"content\":\"hola\"}");
+    }
+
+    @Test
+    @DisplayName("Junta un frame partido en varios mensajes")
+    void joinsSplitFrames() {
+        ReactiveChatSession session = session(false);
+        String content = "x".repeat(20_000);
+
+        assertThat(session.decode("SEND\ndestination:/app/chat.sendMessage\n\n{\"content\":\"")).isEmpty();
+        assertThat(session.decode(content)).isEmpty();
+        List<Message<byte[]>> frames = session.decode("\"}\0SUBSCRIBE\nid:sub-0\ndestination:/topic/");
+
+        assertThat(frames).hasSize(1);
+        assertThat(body(frames.get(0))).isEqualTo("{\"content\":\"" + content + "\"}");
+
+        frames = session.decode("public\n\n\0");
+        assertThat(frames).hasSize(1);
+        assertThat(StompHeaderAccessor.wrap(frames.get(0)).getDestination()).isEqualTo("/topic/public");
+    }
+
+    @Test
+    @DisplayName("Respeta content-length aunque el cuerpo contenga NUL")
+    void honoursContentLength() {
+        List<Message<byte[]>> frames = session(false).decode(
+                "SEND\ndestination:/topic/a\ncontent-length:3\n\na\0b\0\n");
+
+        assertThat(frames).hasSize(1);
+        assertThat(body(frames.get(0))).isEqualTo("a\0b");
+    }
+
+    @Test
+    @DisplayName("Ignora los heart-beats y deshace el escapado de las cabeceras")
+    void skipsHeartbeatsAndUnescapes() {
+        ReactiveChatSession session = session(false);
+        assertThat(session.decode("\n")).isEmpty();
+
+        List<Message<byte[]>> frames = session.decode(
+                "\r\nSEND\r\ndestination:/app/a\\cb\r\n\r\n{}\0\nDISCONNECT\nreceipt:r-1\n\n\0\n");
+
+        assertThat(frames).extracting(frame -> StompHeaderAccessor.wrap(frame).getCommand())
+                .containsExactly(StompCommand.SEND, StompCommand.DISCONNECT);
+        assertThat(StompHeaderAccessor.wrap(frames.get(0)).getDestination()).isEqualTo("/app/a:b");
+        assertThat(StompHeaderAccessor.wrap(frames.get(1)).getReceipt()).isEqualTo("r-1");
+    }
+
+    @Test
+    @DisplayName("Con SockJS decodifica los frames repartidos entre los elementos del array")
+    void decodesSockJsFrames() throws Exception {
+        ReactiveChatSession session = session(true);
+        String first = "SEND\ndestination:/app/chat.typing\n\n{\"sender\":";
+        String second = "\"ana\"}\0";
+
+        assertThat(session.decode(objectMapper.writeValueAsString(new String[] { first }))).isEmpty();
+        List<Message<byte[]>> frames = session.decode(objectMapper.writeValueAsString(new String[] { second }));
+
+        assertThat(frames).hasSize(1);
+        assertThat(body(frames.get(0))).isEqualTo("{\"sender\":\"ana\"}");
+    }
+
+    @Test
+    @DisplayName("Ante un frame inválido envía ERROR y cierra la sesión")
+    void rejectsInvalidFrames() {
+        ReactiveChatSession session = session(false);
+
+        assertThat(session.decode("SEND\ndestination:/a\\t\n\n\0")).isEmpty();
+
+        List<String> sent = session.outbound().map(WebSocketMessage::getPayloadAsText).collectList().block();
+        assertThat(sent).singleElement().asString().startsWith("ERROR\n");
+    }
+
+    private ReactiveChatSession session(boolean sockJs) {
+        WebSocketSession webSocketSession = mock(WebSocketSession.class);
+        when(webSocketSession.getId()).thenReturn("s-1");
+        when(webSocketSession.textMessage(anyString())).thenAnswer(invocation -> new WebSocketMessage(
+                WebSocketMessage.Type.TEXT, DefaultDataBufferFactory.sharedInstance.wrap(
+                        invocation.<String>getArgument(0).getBytes(StandardCharsets.UTF_8))));
+        return new ReactiveChatSession(webSocketSession, sockJs, objectMapper, 16);
+    }
+
+    private static String body(Message<byte[]> frame) {
+        return new String(frame.getPayload(), StandardCharsets.UTF_8);
+    }
+}
@@ -0,0 +1,58 @@
+package com.sistema.mensajeria.reactive;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Set;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de los frames STOMP que envía el modo reactivo
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class StompFrameTest {
+
+    @Test
+    @DisplayName("Los MESSAGE llevan content-length y escapan las cabeceras")
+    void encodesMessage() {
+        byte[] json = "{\"content\":\"añadir\"}".getBytes(StandardCharsets.UTF_8);
+
+        assertThat(StompFrame.message("/topic/a:b", "sub\\1", 7, json))
+                .startsWith("MESSAGE\n")
+                .contains("\ndestination:/topic/a\\cb\n")
+                .contains("\ncontent-type:application/json\n")
+                .contains("\nsubscription:sub\\\\1\n")
+                .contains("\nmessage-id:7\n")
+                .contains("\ncontent-length:" + json.length + "\n")
+                .endsWith("\n\n{\"content\":\"añadir\"}\0");
+    }
+
+    @Test
+    @DisplayName("Escapa los saltos de línea del mensaje de error")
+    void encodesError() {
+        assertThat(StompFrame.error("línea 1\nlínea 2"))
+                .startsWith("ERROR\n")
+                .contains("\nmessage:línea 1\\nlínea 2\n")
+                .endsWith("\n\n\0");
+        assertThat(StompFrame.receipt("r:1")).isEqualTo("RECEIPT\nreceipt-id:r\\c1\n\n\0");
+    }
+
+    @Test
+    @DisplayName("Negocia la versión más alta aceptada por el cliente")
+    void negotiatesVersion() {
+        assertThat(StompFrame.negotiateVersion(Set.of("1.1", "1.2"))).isEqualTo("1.2");
+        assertThat(StompFrame.negotiateVersion(Set.of("1.0", " 1.1"))).isEqualTo("1.1");
+        assertThat(StompFrame.negotiateVersion(Set.of())).isEqualTo("1.0");
+        assertThat(StompFrame.negotiateVersion(Set.of("2.0"))).isNull();
+
+        assertThat(StompFrame.connected("1.2"))
+                .startsWith("CONNECTED\n")
+                .contains("\nversion:1.2\n")
+                .contains("\nheart-beat:0,0\n");
+        assertThat(StompFrame.versionError()).contains("\nversion:1.2,1.1,1.0\n");
+    }
+}
@@ -0,0 +1,88 @@
+package com.sistema.mensajeria.service;
+
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.ConnectionNotification;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de las reglas del chat comunes a todos los modos
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class ChatServiceTest {
+
+    private final UserService userService = new UserService();
+    private final ChatService chatService = new ChatService();
+
+    ChatServiceTest() {
+        ReflectionTestUtils.setField(chatService, "userService", userService);
+    }
+
+    @Test
+    @DisplayName("Elimina los espacios y rechaza el contenido vacío o demasiado largo")
+    void validatesContent() {
+        assertThat(chatService.validateContent("ana", "  hola  ")).isEqualTo("hola");
+        assertThat(chatService.validateContent("ana", null)).isNull();
+        assertThat(chatService.validateContent("ana", "   ")).isNull();
+
+        String longest = "x".repeat(ChatService.MAX_CONTENT_LENGTH);
+        assertThat(chatService.validateContent("ana", " " + longest + " ")).isEqualTo(longest);
+        assertThat(chatService.validateContent("ana", longest + "x")).isNull();
+    }
+
+    @Test
+    @DisplayName("Prepara los mensajes de chat válidos y descarta el resto")
+    void preparesChatMessages() {
+        ChatMessage chat = chatService.chat(new ChatMessage(ChatMessage.MessageType.TYPING, " hola ", "ana"));
+
+        assertThat(chat.getType()).isEqualTo(ChatMessage.MessageType.CHAT);
+        assertThat(chat.getContent()).isEqualTo("hola");
+        assertThat(chat.getTimestamp()).isNotNull();
+        assertThat(chatService.chat(new ChatMessage(ChatMessage.MessageType.CHAT, " ", "ana"))).isNull();
+    }
+
+    @Test
+    @DisplayName("Rechaza unirse al chat sin nombre")
+    void validatesSender() {
+        assertThat(chatService.validateSender("ana")).isTrue();
+        assertThat(chatService.validateSender(null)).isFalse();
+        assertThat(chatService.validateSender("  ")).isFalse();
+    }
+
+    @Test
+    @DisplayName("Construye los mensajes de alta, salida y conteo de usuarios")
+    void buildsSystemMessages() {
+        ChatMessage join = chatService.join(new ChatMessage(ChatMessage.MessageType.CHAT, null, "ana"));
+        assertThat(join.getType()).isEqualTo(ChatMessage.MessageType.JOIN);
+        assertThat(join.getContent()).isEqualTo("ana se ha unido al chat");
+
+        ChatMessage leave = chatService.leave("ana");
+        assertThat(leave.getType()).isEqualTo(ChatMessage.MessageType.LEAVE);
+        assertThat(leave.getSender()).isEqualTo("ana");
+        assertThat(leave.getContent()).isEqualTo("ana ha abandonado el chat");
+
+        assertThat(chatService.typing(new ChatMessage(ChatMessage.MessageType.CHAT, null, "ana")).getType())
+                .isEqualTo(ChatMessage.MessageType.TYPING);
+    }
+
+    @Test
+    @DisplayName("Registra y elimina usuarios conservando el primer nombre de cada sesión")
+    void registersUsers() {
+        assertThat(chatService.registerUser("ana", "s-1")).isTrue();
+        assertThat(chatService.registerUser("otro", "s-1")).isFalse();
+        assertThat(chatService.registerUser("luis", "s-2")).isTrue();
+
+        ConnectionNotification count = chatService.userCount();
+        assertThat(count.getType()).isEqualTo(ConnectionNotification.NotificationType.USER_LIST_UPDATE);
+        assertThat(count.getTotalUsers()).isEqualTo(2);
+
+        assertThat(chatService.unregisterUser("s-1").getUsername()).isEqualTo("ana");
+        assertThat(chatService.unregisterUser("s-1")).isNull();
+        assertThat(chatService.getUserCount()).isEqualTo(1);
+    }
+}
@@ -0,0 +1,122 @@
+package com.sistema.mensajeria.service;
+
+import com.sistema.mensajeria.model.ChatMessage;
+import com.sistema.mensajeria.model.LeanChatMessage;
+import com.sistema.mensajeria.model.LeanConnectionNotification;
+import com.sistema.mensajeria.util.CoarseClock;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas de la fábrica de mensajes del modelo ligero
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class LeanMessageFactoryTest {
+
+    private final LeanMessageFactory factory = new LeanMessageFactory();
+
+    LeanMessageFactoryTest() {
+        // Reloj sin iniciar: devuelve siempre la hora de creación
+        ReflectionTestUtils.setField(factory, "clock", new CoarseClock(10));
+    }
+
+    @Test
+    @DisplayName("Devuelve la misma instancia para nombres iguales")
+    void internReturnsCanonicalInstance() {
+        String first = factory.internSender(copy("alice"));
+        String second = factory.internSender(copy("alice"));
+
+        assertThat(second).isSameAs(first);
+        assertThat(factory.internSender(null)).isNull();
+    }
+
+    @Test
+    @DisplayName("Conserva el nombre mientras alguna sesión lo use")
+    void releaseKeepsNameWhileInUse() {
+        String firstTab = factory.internSender(copy("alice"));
+        String secondTab = factory.internSender(copy("alice"));
+
+        factory.releaseSender(firstTab);
+        assertThat(factory.internSender(copy("alice"))).isSameAs(firstTab);
+
+        // Quedan dos sesiones: la segunda pestaña y la que se acaba de internar
+        factory.releaseSender(secondTab);
+        factory.releaseSender(firstTab);
+
+        String next = copy("alice");
+        assertThat(factory.internSender(next)).isSameAs(next);
+    }
+
+    @Test
+    @DisplayName("Ignora la liberación de nombres que no se internaron")
+    void releaseIgnoresForeignInstances() {
+        String interned = factory.internSender(copy("bob"));
+
+        factory.releaseSender(copy("bob"));
+        factory.releaseSender("carol");
+        factory.releaseSender(null);
+
+        assertThat(factory.internSender(copy("bob"))).isSameAs(interned);
+    }
+
+    @Test
+    @DisplayName("No interna nombres nuevos al alcanzar el límite")
+    void respectsCap() {
+        String[] interned = new String[10_000];
+        for (int i = 0; i < interned.length; i++) {
+            interned[i] = factory.internSender("usuario-" + i);
+        }
+
+        String overflow = copy("usuario-extra");
+        assertThat(factory.internSender(overflow)).isSameAs(overflow);
+        assertThat(factory.internSender(copy("usuario-extra"))).isNotSameAs(overflow);
+
+        // Los nombres ya internados siguen compartiéndose
+        assertThat(factory.internSender(copy("usuario-7"))).isSameAs(interned[7]);
+
+        // Liberar el nombre que no se internó no afecta a la entrada creada después
+        factory.releaseSender(interned[0]);
+        String late = factory.internSender(copy("usuario-extra"));
+        factory.releaseSender(overflow);
+        assertThat(factory.internSender(copy("usuario-extra"))).isSameAs(late);
+    }
+
+    @Test
+    @DisplayName("Construye los mensajes del sistema con el nombre y la hora del reloj")
+    void buildsMessages() {
+        LeanChatMessage join = factory.join("alice");
+        LeanChatMessage leave = factory.leave("alice");
+        LeanChatMessage typing = factory.typing("alice");
+
+        assertThat(join.type()).isEqualTo(ChatMessage.MessageType.JOIN);
+        assertThat(join.content()).isEqualTo("alice se ha unido al chat");
+        assertThat(leave.type()).isEqualTo(ChatMessage.MessageType.LEAVE);
+        assertThat(leave.content()).isEqualTo("alice ha abandonado el chat");
+        assertThat(typing.content()).isNull();
+        assertThat(typing.timestamp()).isEqualTo(join.timestamp());
+    }
+
+    @Test
+    @DisplayName("Reutiliza el texto de conteo de usuarios precalculado")
+    void userCountMessages() {
+        LeanConnectionNotification small = factory.userCount(3);
+        LeanConnectionNotification large = factory.userCount(5_000);
+
+        assertThat(small.message()).isEqualTo("Usuarios conectados: 3");
+        assertThat(factory.userCount(3).message()).isSameAs(small.message());
+        assertThat(large.message()).isEqualTo("Usuarios conectados: 5000");
+        assertThat(large.totalUsers()).isEqualTo(5_000);
+    }
+
+    /**
+     * Copia del texto con una instancia distinta, como la que llega deserializada en cada mensaje
+     */
+    private static String copy(String value) {
+        return new String(value);
+    }
+}
@@ -0,0 +1,66 @@
+package com.sistema.mensajeria.util;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Pruebas del reloj de baja resolución
+ *
+ * @author Sistema de Mensajería
+ * @version 1.0.0
+ */
+class CoarseClockTest {
+
+    @Test
+    @DisplayName("Sin iniciar devuelve la hora de creación")
+    void frozenUntilStarted() throws InterruptedException {
+        long before = System.currentTimeMillis();
+        CoarseClock clock = new CoarseClock(5);
+        long created = clock.millis();
+
+        Thread.sleep(30);
+
+        assertThat(created).isBetween(before, System.currentTimeMillis());
+        assertThat(clock.millis()).isEqualTo(created);
+    }
+
+    @Test
+    @DisplayName("Avanza con la resolución configurada mientras está iniciado")
+    void advancesWhileStarted() throws InterruptedException {
+        CoarseClock clock = new CoarseClock(5);
+        long created = clock.millis();
+        clock.start();
+        try {
+            // Espera a la primera actualización con un margen amplio para máquinas cargadas
+            long deadline = System.currentTimeMillis() + 5_000;
+            while (clock.millis() == created && System.currentTimeMillis() < deadline) {
+                Thread.sleep(5);
+            }
+            long cached = clock.millis();
+            long now = System.currentTimeMillis();
+
+            assertThat(cached).isGreaterThan(created);
+            // El valor cacheado nunca va por delante del reloj del sistema
+            assertThat(cached).isBetween(now - 1_000, now);
+        } finally {
+            clock.stop();
+        }
+    }
+
+    @Test
+    @DisplayName("Deja de actualizarse al detenerlo")
+    void stopsUpdating() throws InterruptedException {
+        CoarseClock clock = new CoarseClock(5);
+        clock.start();
+        Thread.sleep(20);
+        clock.stop();
+        Thread.sleep(10);
+        long stopped = clock.millis();
+
+        Thread.sleep(30);
+
+        assertThat(clock.millis()).isEqualTo(stopped);
+    }
+}